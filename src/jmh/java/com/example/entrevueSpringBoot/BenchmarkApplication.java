@@ -0,0 +1,44 @@
+package com.example.entrevueSpringBoot;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Boots the application for benchmarks, once per JMH trial (@Setup(Level.Trial)).
+ *
+ * Each context has its own in-memory H2 database, and SQL logging is off: it would be measured otherwise.
+ */
+public class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Application without web server, benchmarks call the beans directly.
+     *
+     * @param properties additional properties, "key=value"
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * @param properties additional properties, "key=value"
+     */
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        return new SpringApplicationBuilder(EntrevueSpringBootApplication.class)
+                .web(webApplicationType)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN"
+                )
+                .properties(properties)
+                .run();
+    }
+}
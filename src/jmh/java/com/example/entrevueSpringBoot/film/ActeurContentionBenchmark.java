@@ -0,0 +1,75 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many threads saving films that share new acteurs, see ActeurLocks.
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ActeurContentionBenchmark"
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ActeurContentionBenchmark -t 32"
+ *
+ * Every group of films (as many as threads) introduces the same new acteurs: without locks, all saves of a group
+ * but one would fail on the UNIQUE constraint of acteur. The "conflicts" counter must stay at 0.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class ActeurContentionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Catalogue {
+
+        @Param({"5", "50"})
+        int acteurs;
+
+        ConfigurableApplicationContext context;
+        FilmRepository repository;
+
+        final AtomicLong sequence = new AtomicLong(); // titre is unique
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start();
+            repository = context.getBean(FilmRepository.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public Film save(Catalogue catalogue, Conflicts conflicts) {
+        long n = catalogue.sequence.incrementAndGet();
+        // same new acteurs for the 16 consecutive films, saved concurrently by the 16 threads
+        Film film = Films.film("Film " + n, catalogue.acteurs, "Group" + n / 16 + "-");
+        try {
+            return catalogue.repository.save(film);
+        } catch (DataIntegrityViolationException e) {
+            conflicts.conflicts++;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the save & get paths (FilmRepository, no response cache) per connection pool size, in profile prod,
+ * with more threads than connections.
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ConnectionPoolBenchmark"
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ConnectionPoolBenchmark -t 128 -p poolSize=8"
+ *
+ * The pool saturates where throughput stops increasing with its size while latency percentiles keep growing.
+ * Threads waiting for a connection are reported as the secondary results "save:waiting" & "get:waiting": sum, over
+ * the operations, of the threads waiting when each operation starts. Divided by the number of operations, it is the
+ * average wait queue, 0 below saturation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class ConnectionPoolBenchmark {
+
+    private static final int CATALOGUE = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Catalogue {
+
+        @Param({"2", "4", "8", "16", "32"})
+        int poolSize;
+
+        ConfigurableApplicationContext context;
+        FilmRepository repository;
+        HikariPoolMXBean pool;
+        long[] ids;
+
+        final AtomicLong sequence = new AtomicLong(); // titre is unique
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "spring.profiles.active=prod",
+                    "spring.datasource.hikari.connection-timeout=60000", // measure waits, not timeouts
+                    "app.pool.size=" + poolSize,
+                    "app.pool.wait-warn-threshold=1h" // no logging under load
+            );
+            repository = context.getBean(FilmRepository.class);
+            pool = context.getBean(HikariDataSource.class).getHikariPoolMXBean();
+
+            ids = new long[CATALOGUE];
+            for (int i = 0; i < CATALOGUE; i++) {
+                ids[i] = repository.save(Films.film("Catalogue " + i, 5, "Acteur" + i + "-")).getId();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    /**
+     * Secondary results, per benchmark thread, summed over the threads.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Pool {
+
+        public long waiting;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            waiting = 0;
+        }
+
+        void sample(Catalogue catalogue) {
+            waiting += catalogue.pool.getThreadsAwaitingConnection(); // an atomic read
+        }
+    }
+
+    @Benchmark
+    public Film save(Catalogue catalogue, Pool pool) {
+        pool.sample(catalogue);
+        long n = catalogue.sequence.incrementAndGet();
+        // acteurs of the catalogue: existing acteurs, as most films of a real catalogue
+        return catalogue.repository.save(Films.film("Film " + n, 5, "Acteur" + n % CATALOGUE + "-"));
+    }
+
+    @Benchmark
+    public Film get(Catalogue catalogue, Pool pool) {
+        pool.sample(catalogue);
+        return catalogue.repository.getById(catalogue.ids[ThreadLocalRandom.current().nextInt(CATALOGUE)]);
+    }
+}
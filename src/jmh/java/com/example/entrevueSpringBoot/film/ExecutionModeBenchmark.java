@@ -0,0 +1,82 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of GET /api/film/{id} over HTTP, per app.execution.mode, with more concurrent clients than Tomcat worker
+ * threads and database connections.
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ExecutionModeBenchmark"
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ExecutionModeBenchmark -t 256"
+ *
+ * The film response cache is disabled: every request reads the database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(64)
+public class ExecutionModeBenchmark {
+
+    private static final int CATALOGUE = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"thread-per-request", "virtual-threads", "async"})
+        String mode;
+
+        ConfigurableApplicationContext context;
+        HttpClient client;
+        List<URI> films;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                    "server.port=0",
+                    "server.tomcat.threads.max=32", // fewer than the clients
+                    "spring.datasource.hikari.maximum-pool-size=10",
+                    "app.execution.mode=" + mode,
+                    "app.film-response-cache.maximum-size=0"
+            );
+
+            FilmRepository repository = context.getBean(FilmRepository.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            films = new ArrayList<>(CATALOGUE);
+            for (int i = 0; i < CATALOGUE; i++) {
+                Film film = repository.save(Films.film("Film " + i, 5, "Acteur" + i + "-"));
+                films.add(URI.create("http://localhost:" + port + "/api/film/" + film.getId()));
+            }
+
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int getFilm(Server server) throws IOException, InterruptedException {
+        URI film = server.films.get(ThreadLocalRandom.current().nextInt(CATALOGUE));
+        HttpResponse<byte[]> response = server.client.send(HttpRequest.newBuilder(film).build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) throw new IllegalStateException("GET " + film + ": " + response.statusCode());
+        return response.body().length;
+    }
+}
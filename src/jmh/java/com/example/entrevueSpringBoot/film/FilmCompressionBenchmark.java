@@ -0,0 +1,90 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gzip compression of a JSON {@link Film} per compression level, as by {@link FilmResponseCache} (level 9, once per
+ * cached film) or by server.compression (level 6, per response).
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="FilmCompressionBenchmark"
+ *
+ * Payload sizes, raw & compressed, are reported as the secondary results "gzip:bytes" & "gzip:gzipBytes". Typical film: a few acteurs and a short description,
+ * worst case: hundreds of acteurs and a long description.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilmCompressionBenchmark {
+
+    private static final String[] WORDS = {
+            "Darth", "Vader", "is", "adamant", "about", "turning", "Luke", "Skywalker", "to", "the", "dark", "side",
+            "rebels", "flee", "Hoth", "while", "Han", "Solo", "and", "Leia", "escape", "Empire", "Yoda", "trains",
+    };
+
+    @Param({"typical", "worst-case"})
+    String payload;
+
+    @Param({"1", "6", "9"})
+    int level;
+
+    ConfigurableApplicationContext context;
+    byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start();
+
+        boolean worstCase = "worst-case".equals(payload);
+        Film film = Films.film("Star Wars: The Empire Strikes Back", worstCase ? 500 : 5, "Ford");
+        film.setId(1L);
+        long id = 2;
+        for (Acteur acteur : film.getActeurs()) acteur.setId(id++);
+        if (worstCase) film.setDescription(description(4000));
+
+        json = context.getBean(ObjectMapper.class).writeValueAsBytes(film);
+    }
+
+    /**
+     * Pseudo-random words: less compressible than a repeated sentence.
+     */
+    private static String description(int length) {
+        Random random = new Random(42);
+        StringBuilder description = new StringBuilder(length + 16);
+        while (description.length() < length) description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        return description.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Secondary results, per benchmark thread: assigned rather than accumulated, reported as is.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+        public long bytes;
+        public long gzipBytes;
+    }
+
+    @Benchmark
+    public byte[] gzip(Sizes sizes) {
+        byte[] gzip = FilmResponseCache.gzip(json, level);
+        sizes.bytes = json.length;
+        sizes.gzipBytes = gzip.length;
+        return gzip;
+    }
+}
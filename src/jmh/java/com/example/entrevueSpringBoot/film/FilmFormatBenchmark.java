@@ -0,0 +1,92 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding & decoding of a {@link Film} per {@link FilmFormat}, with the application's ObjectMappers.
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="FilmFormatBenchmark -prof gc"
+ *
+ * Payload sizes are reported as the secondary result "encode:bytes": compare them with the time &
+ * gc.alloc.rate.norm of each format.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilmFormatBenchmark {
+
+    @Param({"5", "50", "500"})
+    int acteurs;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    FilmFormat format;
+
+    ConfigurableApplicationContext context;
+    ObjectMapper objectMapper;
+    Film film;
+    byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start();
+        switch (format) {
+            case CBOR:
+                objectMapper = context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+                break;
+            case SMILE:
+                objectMapper = context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+                break;
+            default:
+                objectMapper = context.getBean(ObjectMapper.class);
+        }
+
+        film = Films.film("Star Wars: The Empire Strikes Back", acteurs, "Ford");
+        film.setId(1L);
+        long id = 2;
+        for (Acteur acteur : film.getActeurs()) acteur.setId(id++);
+
+        bytes = objectMapper.writeValueAsBytes(film);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Secondary results, per benchmark thread.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        /**
+         * Size of the encoded film, assigned rather than accumulated: reported as is.
+         */
+        public long bytes;
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(film);
+        payload.bytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public Film decode() throws IOException {
+        return objectMapper.readValue(bytes, Film.class);
+    }
+}
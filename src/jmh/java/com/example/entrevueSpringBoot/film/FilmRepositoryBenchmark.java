@@ -0,0 +1,144 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot paths of {@link FilmRepository}, against in-memory H2.
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="FilmRepositoryBenchmark -prof gc"
+ *
+ * SampleTime reports latency percentiles, -prof gc the allocation rate (gc.alloc.rate.norm: bytes per operation).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FilmRepositoryBenchmark {
+
+    /**
+     * Save of films with new or existing acteurs (tuple lookup, acteur id cache, references, persist & flush).
+     */
+    @State(Scope.Benchmark)
+    public static class SaveState {
+
+        @Param({"0", "5", "50", "500"})
+        int acteurs;
+
+        @Param({"new", "existing"})
+        String acteursKind;
+
+        ConfigurableApplicationContext context;
+        FilmRepository repository;
+
+        private final AtomicLong sequence = new AtomicLong(); // titre is unique, acteurs may be
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start();
+            repository = context.getBean(FilmRepository.class);
+
+            if ("existing".equals(acteursKind)) repository.save(Films.film("existing acteurs", acteurs, "Existing"));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        Film nextFilm() {
+            long n = sequence.incrementAndGet();
+            String acteursPrefix = "existing".equals(acteursKind) ? "Existing" : "New" + n + "-";
+            return Films.film("Film " + n, acteurs, acteursPrefix);
+        }
+    }
+
+    /**
+     * Catalogue for gets: hot is always the same film, cold a random film of the catalogue.
+     */
+    @State(Scope.Benchmark)
+    public static class GetState {
+
+        @Param({"1000", "100000"})
+        int catalogue;
+
+        @Param({"hot", "cold"})
+        String access;
+
+        ConfigurableApplicationContext context;
+        FilmRepository repository;
+        FilmResponseCache responseCache;
+        TransactionTemplate readWrite;
+        long[] ids;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start();
+            repository = context.getBean(FilmRepository.class);
+            responseCache = context.getBean(FilmResponseCache.class);
+            readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class)); // not read-only
+
+            ids = new long[catalogue];
+            List<Film> chunk = new ArrayList<>();
+            for (int i = 0; i < catalogue; i++) {
+                chunk.add(Films.film("Film " + i, 5, "Acteur" + (i % 1000) + "-")); // acteurs shared by films
+                if (chunk.size() == 500 || i == catalogue - 1) {
+                    List<Film> saved = repository.saveAll(chunk);
+                    for (int j = 0; j < saved.size(); j++) ids[i - saved.size() + 1 + j] = saved.get(j).getId();
+                    chunk = new ArrayList<>();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        long nextId() {
+            return "hot".equals(access) ? ids[0] : ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        }
+    }
+
+    @Benchmark
+    public Film save(SaveState state) {
+        return state.repository.save(state.nextFilm());
+    }
+
+    /**
+     * Read-only transaction, film & acteurs in one query.
+     */
+    @Benchmark
+    public Film getById(GetState state) {
+        return state.repository.getById(state.nextId());
+    }
+
+    /**
+     * Baseline of {@link #getById}: same query in a read-write transaction, which getById joins (its read-only flag
+     * only applies to the transactions it starts). Hibernate keeps a snapshot of the loaded entities for dirty
+     * checking and flushes on commit: compare time & gc.alloc.rate.norm with getById.
+     */
+    @Benchmark
+    public Film getByIdReadWrite(GetState state) {
+        long id = state.nextId();
+        return state.readWrite.execute(status -> state.repository.getById(id));
+    }
+
+    /**
+     * What GET /api/film/{id} does: serialized film from cache, or loaded and serialized.
+     */
+    @Benchmark
+    public FilmResponseCache.Entry getCached(GetState state) {
+        return state.responseCache.get(state.nextId(), state.repository::getById);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a {@link Film}, with the application's ObjectMapper (hand-written serializers, see
+ * {@link FilmJsonSerializer}) or with a default ObjectMapper (bean serializers).
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="FilmSerializationBenchmark -prof gc"
+ *
+ * Compare gc.alloc.rate.norm (bytes per response) of both serializers.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilmSerializationBenchmark {
+
+    @Param({"0", "5", "50", "500"})
+    int acteurs;
+
+    @Param({"handwritten", "default"})
+    String serializer;
+
+    ConfigurableApplicationContext context;
+    ObjectMapper objectMapper;
+    Film film;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        objectMapper = "handwritten".equals(serializer)
+                ? context.getBean(ObjectMapper.class)
+                : Jackson2ObjectMapperBuilder.json().modules(new Hibernate5Module()).build(); // no @JsonComponent
+
+        film = Films.film("Star Wars: The Empire Strikes Back", acteurs, "Ford");
+        film.setId(1L);
+        long id = 2;
+        for (Acteur acteur : film.getActeurs()) acteur.setId(id++);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(film);
+    }
+}
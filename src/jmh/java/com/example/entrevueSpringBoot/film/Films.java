@@ -0,0 +1,36 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Films for benchmarks.
+ */
+public class Films {
+
+    private Films() {
+    }
+
+    /**
+     * New film (no id) with new or existing acteurs (no id).
+     *
+     * @param acteursPrefix acteurs' nom is prefix + index: same prefix, same acteurs
+     */
+    public static Film film(String titre, int acteurs, String acteursPrefix) {
+        Film film = new Film();
+        film.setTitre(titre);
+        film.setDescription("Darth Vader is adamant about turning Luke Skywalker to the dark side.");
+
+        List<Acteur> list = new ArrayList<>(acteurs);
+        for (int i = 0; i < acteurs; i++) {
+            Acteur acteur = new Acteur();
+            acteur.setNom(acteursPrefix + i);
+            acteur.setPrenom("Harrison");
+            list.add(acteur);
+        }
+        film.setActeurs(list);
+        return film;
+    }
+}
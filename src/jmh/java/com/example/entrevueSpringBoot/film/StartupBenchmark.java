@@ -0,0 +1,118 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.BenchmarkApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart of a persistent catalogue (profile "file"), with and without warm-up, see CatalogueWarmUp.
+ *
+ * mvn -P jmh test-compile exec:exec -Djmh.args="StartupBenchmark"
+ *
+ * timeToReady: from start to ready (runners done, readiness probe up), includes the warm-up.
+ * firstRequest: GET /api/film/{id} of one of the latest films, first request after ready.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Catalogue {
+
+        @Param({"100000"})
+        int films;
+
+        @Param({"false", "true"})
+        boolean warmUp;
+
+        Path directory;
+        long latestId; // known before the measured restarts: looking it up would warm H2 & Hibernate up
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("entrevue-startup");
+            try (ConfigurableApplicationContext context = start(WebApplicationType.NONE, false)) {
+                FilmRepository repository = context.getBean(FilmRepository.class);
+                List<Film> chunk = new ArrayList<>();
+                for (int i = 0; i < films; i++) {
+                    chunk.add(Films.film("Film " + i, 5, "Acteur" + i % 1000 + "-"));
+                    if (chunk.size() == 500 || i == films - 1) {
+                        List<Film> saved = repository.saveAll(chunk);
+                        latestId = saved.get(saved.size() - 1).getId();
+                        chunk = new ArrayList<>();
+                    }
+                }
+            }
+        }
+
+        ConfigurableApplicationContext start(WebApplicationType webApplicationType, boolean warmUp) {
+            return BenchmarkApplication.start(webApplicationType,
+                    "spring.profiles.active=file",
+                    "spring.datasource.url=jdbc:h2:file:" + directory.resolve("entrevue") + ";CACHE_SIZE=65536",
+                    "server.port=0",
+                    "app.warm-up.enabled=" + warmUp
+            );
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Started {
+
+        ConfigurableApplicationContext context;
+        URI latestFilm;
+
+        @Setup(Level.Invocation)
+        public void setUp(Catalogue catalogue) {
+            context = catalogue.start(WebApplicationType.SERVLET, catalogue.warmUp);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            latestFilm = URI.create("http://localhost:" + port + "/api/film/" + catalogue.latestId);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    /**
+     * Context started by the benchmark method, closed after the measure.
+     */
+    @State(Scope.Thread)
+    public static class ToClose {
+
+        ConfigurableApplicationContext context;
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public void timeToReady(Catalogue catalogue, ToClose toClose) {
+        toClose.context = catalogue.start(WebApplicationType.SERVLET, catalogue.warmUp);
+    }
+
+    @Benchmark
+    public int firstRequest(Started started) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(started.latestFilm).build(), HttpResponse.BodyHandlers.ofByteArray());
+        return response.body().length;
+    }
+}
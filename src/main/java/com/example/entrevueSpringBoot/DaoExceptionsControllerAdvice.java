@@ -6,7 +6,10 @@ import org.hibernate.engine.jdbc.internal.ResultSetReturnImpl;
 import org.hibernate.engine.jdbc.spi.SqlExceptionHelper;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -18,6 +21,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  *
  * @see SqlExceptionHelper#logExceptions
  * @see ResultSetReturnImpl#executeUpdate that logs SQLException for update method
+ *
+ * Also handles exceptions of the reactive variant of the film API (WebFlux supports @RestControllerAdvice too).
  */
 @RestControllerAdvice
 public class DaoExceptionsControllerAdvice {
@@ -35,6 +40,23 @@ public class DaoExceptionsControllerAdvice {
         //return ""; // do not propagate security-sensible information to caller
 
         // spring -> hibernate ; hibernate specific code
-        return ((ConstraintViolationException) e.getCause()).getSQLException().getMessage(); // useful message for devs
+        if (e.getCause() instanceof ConstraintViolationException) {
+            return ((ConstraintViolationException) e.getCause()).getSQLException().getMessage(); // useful message for devs
+        }
+
+        // spring -> r2dbc, see ReactiveFilmRepository
+        return e.getMostSpecificCause().getMessage();
+    }
+
+    /**
+     * No connection within spring.datasource.hikari.connection-timeout: the pool is saturated, the client may retry.
+     *
+     * @see com.example.entrevueSpringBoot.datasource.ConnectionWaitWarningTrackerFactory that logs the timeout
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<String> handle(CannotCreateTransactionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1") // seconds
+                .body(e.getMostSpecificCause().getMessage());
     }
 }
@@ -1,7 +1,9 @@
 package com.example.entrevueSpringBoot;
 
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
@@ -11,4 +13,15 @@ public class EntrevueSpringBootApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(EntrevueSpringBootApplication.class, args);
 	}
+
+	/**
+	 * Jackson module so that serialization never initializes a lazy association, it is serialized as null instead.
+	 *
+	 * Endpoints serialize what they fetched with explicit fetch plans, see FilmRepository.
+	 * Registered on the auto-configured ObjectMapper because it is a Module bean.
+	 */
+	@Bean
+	public Hibernate5Module hibernate5Module() {
+		return new Hibernate5Module();
+	}
 }
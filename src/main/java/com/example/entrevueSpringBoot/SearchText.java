@@ -0,0 +1,25 @@
+package com.example.entrevueSpringBoot;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text folding shared by the in-memory search indexes, so that keys and queries are compared the same way.
+ */
+public final class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {
+    }
+
+    /**
+     * "Pénélope CRUZ" -> "penelope cruz"
+     */
+    public static String fold(String s) {
+        if (s == null) return "";
+        return DIACRITICS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+}
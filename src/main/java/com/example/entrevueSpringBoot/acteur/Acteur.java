@@ -15,7 +15,9 @@ import javax.persistence.*;
 public class Acteur {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // see Film#id for SEQUENCE instead of IDENTITY
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "acteur_seq")
+    @SequenceGenerator(name = "acteur_seq", sequenceName = "acteur_seq", allocationSize = 50)
     private Long id;
     private String nom;
     private String prenom;
@@ -0,0 +1,29 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class ActeurController {
+
+    /**
+     * Maximum number of acteurs of {@link #searchActeurs}.
+     */
+    private static final int MAX_LIMIT = 100;
+
+    private final ActeurSearchIndex searchIndex;
+
+    /**
+     * Autocomplete of acteurs: acteurs whose nom or prenom (or both, in any order) starts with q, accents & case
+     * ignored. Served from memory, see {@link ActeurSearchIndex}.
+     */
+    @GetMapping("/api/acteurs")
+    public List<Acteur> searchActeurs(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return searchIndex.search(q, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
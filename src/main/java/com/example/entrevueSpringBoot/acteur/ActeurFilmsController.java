@@ -0,0 +1,73 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import com.example.entrevueSpringBoot.EntityNotFoundException;
+import com.example.entrevueSpringBoot.film.FilmRepository;
+import com.example.entrevueSpringBoot.film.FilmSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Films of an acteur, from the database through JPA.
+ */
+@RestController
+@RequiredArgsConstructor
+@Profile("!reactive") // blocking
+public class ActeurFilmsController {
+
+    /**
+     * Maximum number of films per page of {@link #getActeurFilms}.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ActeurRepository repository;
+    private final FilmRepository filmRepository;
+
+    /**
+     * Keyset pagination of the films of an acteur, as summaries (id & titre) ordered by id, a single query per page.
+     *
+     * The next page is given by the Link header (rel="next"), absent on the last page.
+     *
+     * @param after id of the last film of the previous page, 0 (default) for the first page
+     * @param uri   relative to the current request's context path
+     */
+    @GetMapping("/api/acteurs/{id}/films")
+    public ResponseEntity<List<FilmSummary>> getActeurFilms(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            UriComponentsBuilder uri
+    ) {
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<FilmSummary> films = filmRepository.findSummariesByActeurIdAfter(id, after, PageRequest.of(0, limit));
+        if (films.isEmpty() && after == 0 && !repository.existsById(id)) { // only to tell 404 from no film
+            throw new EntityNotFoundException(
+                    "acteur", // entity name
+                    Collections.singletonMap("id", id) // criteria
+            );
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (films.size() == limit) { // maybe more
+            long last = films.get(films.size() - 1).getId();
+            String next = uri.path("/api/acteurs/{id}/films")
+                    .queryParam("after", last)
+                    .queryParam("limit", limit)
+                    .buildAndExpand(id)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", next));
+        }
+        return response.body(films);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bounded in-memory cache of acteur ids by nom & prenom.
+ *
+ * Acteurs are almost never new: the same acteurs play in many films. Knowing their id saves the tuple lookup
+ * on each film save, see FilmRepository#save.
+ *
+ * Only committed acteurs are cached: acteurs are put after the commit of the transaction that looked them up or
+ * inserted them, so that a rolled back INSERT never leaves the id of a non-existing acteur in cache.
+ * Reactive transactions are not bound to a thread: ReactiveFilmRepository calls {@link #putAll} once committed.
+ *
+ * Cached ids are not verified: an acteur may have been deleted since it was cached. A save using such an id fails on
+ * the foreign key and rolls back, which evicts the ids it used (see {@link #invalidateAllAfterRollback}) so that the
+ * next save looks them up again. Bulk deletions evict everything, see {@link #invalidateAll()}.
+ *
+ * Hits & misses are exposed as metrics "cache.gets" with tag cache=acteurIds.
+ *
+ * TODO: is acteur's combination of nom & prenom unique ?
+ */
+@Component
+public class ActeurIdCache {
+
+    private final Cache<NomPrenom, Long> cache;
+
+    public ActeurIdCache(@Value("${app.acteur-id-cache.maximum-size:10000}") long maximumSize, MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "acteurIds");
+    }
+
+    /**
+     * @return the acteur id, or null if not in cache
+     */
+    public Long get(NomPrenom nomPrenom) {
+        return cache.getIfPresent(nomPrenom);
+    }
+
+    /**
+     * Put acteurs in cache once the current transaction is committed.
+     *
+     * Acteurs ids are read on commit, so new acteurs can be given before being persisted.
+     */
+    public void putAllAfterCommit(Collection<Acteur> acteurs) {
+        List<Acteur> toPut = new ArrayList<>(acteurs); // acteurs might be a view on a map modified meanwhile
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putAll(toPut);
+            }
+        });
+    }
+
+    /**
+     * Evict ids from cache if the current transaction rolls back: they may be the ids of deleted acteurs.
+     */
+    public void invalidateAllAfterRollback(Collection<NomPrenom> nomPrenoms) {
+        List<NomPrenom> toInvalidate = new ArrayList<>(nomPrenoms);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) invalidateAll(toInvalidate);
+            }
+        });
+    }
+
+    public void invalidateAll(Collection<NomPrenom> nomPrenoms) {
+        cache.invalidateAll(nomPrenoms);
+    }
+
+    /**
+     * Evict all ids, e.g. once acteurs were deleted in bulk.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Put committed acteurs in cache.
+     */
+    public void putAll(Collection<Acteur> acteurs) {
+        for (Acteur acteur : acteurs) {
+            if (acteur.getId() == null) continue; // not persisted
+            cache.put(new NomPrenom(acteur), acteur.getId());
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
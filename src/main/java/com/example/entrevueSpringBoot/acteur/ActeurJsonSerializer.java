@@ -0,0 +1,57 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.hibernate.Hibernate;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Hand-written JSON serializer of Acteur, see FilmJsonSerializer.
+ *
+ * An uninitialized proxy is written null, as the Hibernate5Module does.
+ */
+@JsonComponent
+public class ActeurJsonSerializer extends StdSerializer<Acteur> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NOM = new SerializedString("nom");
+    private static final SerializableString PRENOM = new SerializedString("prenom");
+
+    public ActeurJsonSerializer() {
+        super(Acteur.class);
+    }
+
+    @Override
+    public void serialize(Acteur acteur, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(acteur, generator);
+    }
+
+    /**
+     * Also used by FilmJsonSerializer for each acteur, without looking the serializer up.
+     */
+    public static void write(Acteur acteur, JsonGenerator generator) throws IOException {
+        if (acteur == null || !Hibernate.isInitialized(acteur)) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject(acteur);
+
+        generator.writeFieldName(ID);
+        if (acteur.getId() == null) generator.writeNull();
+        else generator.writeNumber(acteur.getId());
+
+        generator.writeFieldName(NOM);
+        generator.writeString(acteur.getNom());
+
+        generator.writeFieldName(PRENOM);
+        generator.writeString(acteur.getPrenom());
+
+        generator.writeEndObject();
+    }
+}
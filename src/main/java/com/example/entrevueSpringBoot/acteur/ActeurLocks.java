@@ -0,0 +1,79 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks on acteurs' nom & prenom, held until the end of the transaction.
+ *
+ * Two transactions saving the same new acteur would both miss it in the tuple lookup and both insert it: one of them
+ * fails on the UNIQUE constraint. Locking the nom & prenom before the lookup serializes them: the second one looks
+ * the acteur up once the first one has committed, and finds it. Transactions on other acteurs are not serialized,
+ * except on the (rare) collisions of stripes.
+ *
+ * Stripes are locked in ascending order: two transactions locking overlapping casts can not deadlock.
+ *
+ * This is a lock within this JVM only: the UNIQUE constraint stays the last line of defense with several instances.
+ *
+ * Pool pressure: locks are taken inside the transaction, which already holds a pooled connection (the tuple lookup
+ * follows on the same connection). A save waiting for a stripe keeps its connection idle meanwhile, so a burst of
+ * saves sharing new acteurs can occupy the pool and delay unrelated requests up to the connection timeout (503).
+ * Locking before the transaction would need the lookup, the insert and the unlock split out of FilmRepository#save's
+ * single transaction. This is accepted because the wait is bounded by one save (the lock holder commits without
+ * waiting on anything else), and only new acteurs are locked: once an acteur is in ActeurIdCache, saves skip the lock.
+ *
+ * TODO: is acteur's combination of nom & prenom unique ?
+ */
+@Component
+public class ActeurLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public ActeurLocks(@Value("${app.acteur-locks.stripes:1024}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) this.stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * Lock acteurs until the current transaction completes (commit or rollback).
+     *
+     * Blocks while another transaction holds the lock of one of these acteurs.
+     */
+    public void lockUntilCompletion(Collection<NomPrenom> nomPrenoms) {
+        int[] locked = nomPrenoms.stream()
+                .mapToInt(nomPrenom -> Math.floorMod(nomPrenom.hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int stripe : locked) stripes[stripe].lock();
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) { // after afterCommit: new acteurs are in ActeurIdCache
+                    unlock(locked);
+                }
+            });
+        } catch (RuntimeException e) { // no transaction
+            unlock(locked);
+            throw e;
+        }
+    }
+
+    private void unlock(int[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) stripes[locked[i]].unlock();
+    }
+
+    /**
+     * @return number of stripes currently locked, for tests
+     */
+    int lockedStripes() {
+        return (int) Arrays.stream(stripes).filter(ReentrantLock::isLocked).count();
+    }
+}
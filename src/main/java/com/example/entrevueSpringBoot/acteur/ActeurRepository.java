@@ -12,6 +12,11 @@ public interface ActeurRepository {
 
     List<Acteur> findAllByIdIn(List<Long> id);
 
+    /**
+     * @see CrudRepository#existsById
+     */
+    boolean existsById(Long id);
+
     /**
      * @see CrudRepository#save
      */
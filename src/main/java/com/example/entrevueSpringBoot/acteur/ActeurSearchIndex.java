@@ -0,0 +1,135 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import com.example.entrevueSpringBoot.SearchText;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index of acteurs by nom & prenom, for autocomplete, see {@link ActeurController}.
+ *
+ * Keys are normalized (lower case, without accents) nom, prenom, "prenom nom" and "nom prenom", suffixed by the id
+ * of the acteur so they are unique. A prefix search is a range of the sorted map: O(log n) to find the first key,
+ * then one step per result, whatever the number of acteurs. The database is not queried (no LIKE scan).
+ *
+ * Built from the acteur table at startup, then maintained after commit of the transactions inserting acteurs,
+ * see FilmRepository#save. The index holds every acteur: about 4 keys of ~20 chars per acteur.
+ * A rebuild fills a new map aside, then swaps it: searches meanwhile read the previous one, never a partial one.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActeurSearchIndex implements SmartInitializingSingleton {
+
+    private static final char ID_SEPARATOR = '\u0000'; // before any char: "ford\0..." sorts before "forda"
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile ConcurrentSkipListMap<String, Acteur> index = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<String, Acteur> building; // being rebuilt, also given the acteurs added meanwhile
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Build the index from the acteur table, streamed, then replace the current one.
+     *
+     * Acteurs added during the rebuild are added to both maps, so the new one misses none of them.
+     */
+    public synchronized void rebuild() {
+        ConcurrentSkipListMap<String, Acteur> rebuilt = new ConcurrentSkipListMap<>();
+        building = rebuilt;
+        try {
+            jdbcTemplate.query("SELECT id, nom, prenom FROM acteur", rs -> {
+                Acteur acteur = new Acteur();
+                acteur.setId(rs.getLong("id"));
+                acteur.setNom(rs.getString("nom"));
+                acteur.setPrenom(rs.getString("prenom"));
+                add(rebuilt, acteur);
+            });
+            index = rebuilt;
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Acteurs whose nom, prenom, "prenom nom" or "nom prenom" starts with the prefix, accents & case ignored,
+     * in alphabetical order of the matched key.
+     *
+     * @param limit maximum number of acteurs
+     */
+    public List<Acteur> search(String prefix, int limit) {
+        String from = normalize(prefix);
+        if (from.isEmpty()) return Collections.emptyList();
+
+        // all keys starting with the prefix: [prefix, prefix + highest char)
+        Map<Long, Acteur> found = new LinkedHashMap<>(); // an acteur may match several of its keys
+        for (Acteur acteur : index.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            found.putIfAbsent(acteur.getId(), acteur);
+            if (found.size() == limit) break;
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Add acteurs to the index once the current transaction is committed.
+     *
+     * Acteurs ids are read on commit, so new acteurs can be given before being persisted.
+     */
+    public void addAllAfterCommit(Collection<Acteur> acteurs) {
+        List<Acteur> toAdd = new ArrayList<>(acteurs);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addAll(toAdd);
+            }
+        });
+    }
+
+    /**
+     * Add committed acteurs to the index.
+     */
+    public void addAll(Collection<Acteur> acteurs) {
+        for (Acteur acteur : acteurs) {
+            // building read first: if null, the rebuild either reads the acteur's row or has already swapped the index
+            ConcurrentSkipListMap<String, Acteur> rebuilt = building;
+            if (rebuilt != null) add(rebuilt, acteur);
+            add(index, acteur);
+        }
+    }
+
+    private static void add(ConcurrentSkipListMap<String, Acteur> index, Acteur acteur) {
+        if (acteur.getId() == null) return; // not persisted
+
+        // copy: the given acteur is an entity or a posted object, possibly changed later
+        Acteur indexed = new Acteur();
+        indexed.setId(acteur.getId());
+        indexed.setNom(acteur.getNom());
+        indexed.setPrenom(acteur.getPrenom());
+
+        String nom = normalize(acteur.getNom());
+        String prenom = normalize(acteur.getPrenom());
+        for (String key : new String[]{nom, prenom, prenom + " " + nom, nom + " " + prenom}) {
+            if (key.isBlank()) continue;
+            index.put(key.trim() + ID_SEPARATOR + indexed.getId(), indexed);
+        }
+    }
+
+    /**
+     * "  Pénélope  CRUZ " -> "penelope cruz"
+     */
+    static String normalize(String s) {
+        return SearchText.fold(s)
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Combination of nom & prenom of an acteur, helper class as Map key thanks to lombok's generated #equals, #hashCode.
+ *
+ * TODO: is acteur's combination of nom & prenom unique ?
+ */
+@Value
+@AllArgsConstructor // not generated by @Value because of the other constructor
+public class NomPrenom {
+
+    String nom;
+    String prenom;
+
+    public NomPrenom(Acteur acteur) {
+        nom = acteur.getNom();
+        prenom = acteur.getPrenom();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.entrevueSpringBoot.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hikari metrics (delegate, e.g. Micrometer's hikaricp.* meters) plus a warning log when a borrower waited for a
+ * connection longer than a threshold: the pool is saturated.
+ *
+ * Warnings are logged as key=value pairs, at most one per second and per pool, with the number of warnings
+ * suppressed since the previous one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ConnectionWaitWarningTrackerFactory implements MetricsTrackerFactory {
+
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MetricsTrackerFactory delegate;
+    private final Duration threshold;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new Tracker(delegate.create(poolName, poolStats), poolName, poolStats, threshold.toNanos());
+    }
+
+    @RequiredArgsConstructor
+    private static class Tracker implements IMetricsTracker {
+
+        private final IMetricsTracker delegate;
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final long thresholdNanos;
+
+        private final AtomicLong lastLog = new AtomicLong(System.nanoTime() - LOG_INTERVAL_NANOS);
+        private final AtomicLong suppressed = new AtomicLong();
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            if (elapsedAcquiredNanos > thresholdNanos) warn("connection.wait", elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+            warn("connection.timeout", -1);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        /**
+         * @param waitNanos -1 if unknown
+         */
+        private void warn(String event, long waitNanos) {
+            long now = System.nanoTime();
+            long last = lastLog.get();
+            if (now - last < LOG_INTERVAL_NANOS || !lastLog.compareAndSet(last, now)) { // another thread logs
+                suppressed.incrementAndGet();
+                return;
+            }
+
+            log.warn("event={} pool={} waitMs={} thresholdMs={} active={} idle={} pending={} max={} suppressed={}",
+                    event,
+                    poolName,
+                    waitNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                    TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+                    poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(),
+                    poolStats.getPendingThreads(),
+                    poolStats.getMaxConnections(),
+                    suppressed.getAndSet(0)
+            );
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.entrevueSpringBoot.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Tuning & monitoring of the HikariCP connection pool.
+ *
+ * The pool is monitored in all profiles: Spring Boot's hikaricp.* meters (connections active, idle, pending,
+ * acquire time...) and a warning log on saturation, see {@link ConnectionWaitWarningTrackerFactory}.
+ * Its size is derived from the number of cores in profile prod only.
+ *
+ * BeanPostProcessors are static beans: instantiated before the other beans, without this configuration.
+ */
+@Configuration
+@Slf4j
+public class DataSourcePoolConfiguration {
+
+    /**
+     * Spring Boot only registers its own MetricsTrackerFactory when none is set: the Micrometer one is the delegate.
+     *
+     * The MeterRegistry is resolved when the pool starts (first connection), not when the DataSource is created.
+     */
+    @Bean
+    public static BeanPostProcessor connectionWaitWarningPostProcessor(
+            @Value("${app.pool.wait-warn-threshold:100ms}") Duration threshold,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    ((HikariDataSource) bean).setMetricsTrackerFactory(new ConnectionWaitWarningTrackerFactory(
+                            (poolName, poolStats) -> new MicrometerMetricsTrackerFactory(meterRegistry.getObject()).create(poolName, poolStats),
+                            threshold
+                    ));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Fixed-size pool (minimum idle = maximum) of app.pool.size connections, or of 2 per core by default (0).
+     *
+     * H2 runs in-process: a JDBC call waits for CPU, not for network or disk, and MVStore locks rows, not tables, so
+     * concurrent transactions rarely wait for each other. Beyond a couple of connections per core, more connections
+     * only add context switches: see ConnectionPoolBenchmark for where the pool saturates.
+     */
+    @Bean
+    @Profile("prod")
+    public static BeanPostProcessor poolSizingPostProcessor(@Value("${app.pool.size:0}") int size) {
+        int poolSize = size > 0 ? size : Math.max(2, 2 * Runtime.getRuntime().availableProcessors());
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                    log.info("Connection pool {}: {} connections", dataSource.getPoolName(), poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.entrevueSpringBoot.execution;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Caps the number of requests concurrently using the database to the size of the connection pool.
+ *
+ * Requests over the cap wait without thread: the request is put in asynchronous mode (Servlet 3 async) and queued,
+ * its thread goes back to the pool. When a request completes, its permit is handed over to the first queued request,
+ * which is dispatched again to the container (ASYNC dispatch) to be handled. This way adding request concurrency
+ * does not move the queue into HikariCP, where waiting requests would each block a thread.
+ *
+ * An admitted request keeps its permit until it completes, including when it is handled asynchronously: handed off
+ * to {@link DatabaseHandoffHandlerAdapter}'s executor, its permit is released on the ASYNC dispatch writing the result
+ * (or on completion, timeout or error of the async processing).
+ *
+ * Queued requests that reach the async timeout are answered 503 Service Unavailable.
+ *
+ * @see ExecutionModeConfiguration
+ */
+@Slf4j
+public class DatabaseAdmissionFilter implements Filter {
+
+    private static final String PERMIT = DatabaseAdmissionFilter.class.getName() + ".PERMIT";
+
+    private final Semaphore permits;
+    private final Predicate<HttpServletRequest> databaseBound;
+    private final Queue<AsyncContext> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param databaseBound requests to admit, the others are not counted
+     */
+    public DatabaseAdmissionFilter(int permits, Predicate<HttpServletRequest> databaseBound) {
+        this.permits = new Semaphore(permits);
+        this.databaseBound = databaseBound;
+    }
+
+    /**
+     * @return true if the request holds a permit: it is handled now, by the current dispatch
+     */
+    public static boolean isAdmitted(ServletRequest request) {
+        return request.getAttribute(PERMIT) != null;
+    }
+
+    /**
+     * Released once, whatever the number of dispatches and async events of the request.
+     */
+    private class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) DatabaseAdmissionFilter.this.release();
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!databaseBound.test((HttpServletRequest) request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // dispatched again with a permit: handed over by #dispatchWaiting, or writing the result of a handoff
+        Permit permit = (Permit) request.getAttribute(PERMIT);
+        if (permit == null) {
+            if (!permits.tryAcquire()) {
+                await(request, response);
+                return;
+            }
+            permit = new Permit();
+            request.setAttribute(PERMIT, permit);
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) releaseOnCompletion(request.getAsyncContext(), permit); // handed off
+            else permit.release();
+        }
+    }
+
+    private void await(ServletRequest request, ServletResponse response) {
+        AsyncContext async = request.startAsync(request, response);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (!waiting.remove(async)) return; // dispatched meanwhile
+
+                ((HttpServletResponse) async.getResponse()).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                async.complete();
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                waiting.remove(async);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        waiting.add(async);
+        dispatchWaiting(); // a permit may have been released between tryAcquire and add
+    }
+
+    /**
+     * Async processing may end without ASYNC dispatch through this filter (client gone, timeout written by the
+     * container): the permit is released on any end.
+     */
+    private void releaseOnCompletion(AsyncContext async, Permit permit) {
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                permit.release();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                permit.release();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                permit.release();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    private void release() {
+        permits.release();
+        dispatchWaiting();
+    }
+
+    /**
+     * Hand over available permits to waiting requests, in order.
+     */
+    private void dispatchWaiting() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            AsyncContext next = waiting.poll();
+            if (next == null) { // taken by another thread
+                permits.release();
+                continue;
+            }
+
+            Permit permit = new Permit();
+            next.getRequest().setAttribute(PERMIT, permit);
+            try {
+                next.dispatch(); // handled on a container thread, permit released at the end of it
+            } catch (IllegalStateException e) { // completed meanwhile (client went away, timeout)
+                log.debug("Waiting request not dispatched", e);
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * @return number of requests waiting for a permit
+     */
+    public int getWaiting() {
+        return waiting.size();
+    }
+
+    /**
+     * @return number of permits not held by a request, for tests
+     */
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
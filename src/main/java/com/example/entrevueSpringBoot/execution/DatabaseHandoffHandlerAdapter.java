@@ -0,0 +1,64 @@
+package com.example.entrevueSpringBoot.execution;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import javax.servlet.ServletRequest;
+import java.time.Duration;
+
+/**
+ * Hands the requests admitted by {@link DatabaseAdmissionFilter} over to a bounded executor, app.execution.mode=async.
+ *
+ * Arguments are resolved on the container thread (the request body is read there), then the controller method is
+ * invoked on the executor as a {@link WebAsyncTask}: the container thread goes back to Tomcat's pool while the JDBC
+ * calls block an executor thread. The result is written on the ASYNC dispatch, as for a controller returning a
+ * Callable, so the controllers' signatures are the same in every mode. Other requests are invoked as usual.
+ *
+ * The executor has one thread per database permit: the filter does not admit more requests than that. Its queue is
+ * not bounded, it only holds admitted requests while timed out tasks still run. A request not done within
+ * app.execution.handoff-timeout is answered 503 Service Unavailable.
+ */
+public class DatabaseHandoffHandlerAdapter extends RequestMappingHandlerAdapter implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final long timeout;
+
+    public DatabaseHandoffHandlerAdapter(int threads, Duration timeout) {
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("db-handoff-");
+        this.timeout = timeout.toMillis();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        executor.initialize();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new ServletInvocableHandlerMethod(handlerMethod) {
+            @Override
+            public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer, Object... providedArgs) throws Exception {
+                if (!DatabaseAdmissionFilter.isAdmitted(request.getNativeRequest(ServletRequest.class))) {
+                    return super.invokeForRequest(request, mavContainer, providedArgs);
+                }
+
+                Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs); // container thread
+                return new WebAsyncTask<>(timeout, executor, () -> doInvoke(args));
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.entrevueSpringBoot.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.DispatcherType;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in execution modes for the film endpoints, property app.execution.mode:
+ *
+ * - thread-per-request (default): Tomcat's worker pool, a blocked JDBC call blocks a worker thread
+ * - virtual-threads: requests are handled on virtual threads (JDK 21+), falls back to async on older JDKs
+ * - async: requests waiting for the database do not hold a worker thread, and admitted requests are handed off to
+ *   a bounded executor for their JDBC calls, see {@link DatabaseHandoffHandlerAdapter}
+ *
+ * In both virtual-threads and async modes, the number of requests concurrently using the database is capped to
+ * the size of the connection pool by {@link DatabaseAdmissionFilter}.
+ */
+@Configuration
+@ConditionalOnExpression("'${app.execution.mode:thread-per-request}' != 'thread-per-request'")
+@Slf4j
+public class ExecutionModeConfiguration {
+
+    /**
+     * Endpoints using the database, not the streamed export (/api/films/export) nor the searches served from memory.
+     */
+    private static final List<String> DATABASE_BOUND = Arrays.asList(
+            "/api/film", "/api/film/*", "/api/films", "/api/films/batch", "/api/films/bulk", "/api/acteurs/*/films"
+    );
+
+    @Bean
+    public FilterRegistrationBean<DatabaseAdmissionFilter> databaseAdmissionFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize, // Spring Boot's default
+            DataSource dataSource,
+            MeterRegistry meterRegistry
+    ) {
+        PathMatcher pathMatcher = new AntPathMatcher();
+        UrlPathHelper urlPathHelper = new UrlPathHelper();
+        DatabaseAdmissionFilter filter = new DatabaseAdmissionFilter(poolSize(maximumPoolSize, dataSource), request -> {
+            String path = urlPathHelper.getPathWithinApplication(request);
+            return DATABASE_BOUND.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        });
+        Gauge.builder("app.execution.database.waiting", filter, DatabaseAdmissionFilter::getWaiting)
+                .description("Requests waiting for a database permit")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<DatabaseAdmissionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*"); // narrowed by DATABASE_BOUND: servlet url patterns have no inner wildcard
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+
+    private static int poolSize(int maximumPoolSize, DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) { // sized by DataSourcePoolConfiguration in profile prod
+            return ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        return maximumPoolSize;
+    }
+
+    /**
+     * Handoff of the admitted requests to a bounded executor: in async mode, and in virtual-threads mode without
+     * virtual threads (its fallback). Virtual threads are not pinned by blocking JDBC calls, no handoff needed.
+     */
+    /**
+     * Handoff of the admitted requests to a bounded executor: in async mode, and in virtual-threads mode without
+     * virtual threads (its fallback). Blocking JDBC calls on a virtual thread do not hold a carrier thread.
+     */
+    @Bean
+    public WebMvcRegistrations databaseHandoffRegistrations(
+            @Value("${app.execution.mode}") String mode,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.execution.handoff-timeout:30s}") Duration handoffTimeout,
+            DataSource dataSource
+    ) {
+        boolean handoff = mode.equals("async") || !virtualThreadsAvailable();
+        int threads = poolSize(maximumPoolSize, dataSource);
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return handoff ? new DatabaseHandoffHandlerAdapter(threads, handoffTimeout) : null; // null: Spring's
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${app.execution.mode}' == 'virtual-threads'")
+    public TomcatConnectorCustomizer virtualThreadsConnectorCustomizer() {
+        Optional<ExecutorService> executor = virtualThreadPerTaskExecutor();
+        if (executor.isEmpty()) {
+            log.warn("Virtual threads are not available on Java {}, falling back to app.execution.mode=async", System.getProperty("java.version"));
+            return connector -> {
+            };
+        }
+
+        return connector -> connector.getProtocolHandler().setExecutor(executor.get());
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Executors#newVirtualThreadPerTaskExecutor, by reflection: the app is compiled for Java 11.
+     */
+    private static Optional<ExecutorService> virtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.example.entrevueSpringBoot.acteur.ActeurIdCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up of a persistent catalogue at startup, app.warm-up.enabled (profile "file").
+ *
+ * Loads the latest films into {@link FilmResponseCache} and the latest acteurs into {@link ActeurIdCache}, which also
+ * loads their pages into H2's cache (CACHE_SIZE) and runs the hot paths through the JIT.
+ *
+ * Application runners run before the application is ready: the readiness probe (/actuator/health/readiness) reports
+ * {@link ReadinessState#ACCEPTING_TRAFFIC} once the warm-up is done, so no request hits a cold instance.
+ * The latest films stand for the hot films: no access statistics survive a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warm-up.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogueWarmUp implements ApplicationRunner {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final FilmRepository repository;
+    private final FilmResponseCache responseCache;
+    private final ActeurIdCache acteurIdCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.warm-up.films:1000}")
+    private int films;
+
+    @Value("${app.warm-up.acteurs:10000}")
+    private int acteurs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+
+        // films with their acteurs, by chunks: one query per chunk rather than per film
+        List<Long> ids = repository.findLatestIds(PageRequest.of(0, films));
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            Map<Long, Film> chunk = repository.findAllWithActeursByIdIn(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))
+                    .stream()
+                    .collect(Collectors.toMap(Film::getId, Function.identity()));
+            for (Film film : chunk.values()) responseCache.get(film.getId(), chunk::get);
+        }
+
+        List<Acteur> latestActeurs = new ArrayList<>(acteurs);
+        jdbcTemplate.query("SELECT id, nom, prenom FROM acteur ORDER BY id DESC LIMIT ?", rs -> {
+            Acteur acteur = new Acteur();
+            acteur.setId(rs.getLong("id"));
+            acteur.setNom(rs.getString("nom"));
+            acteur.setPrenom(rs.getString("prenom"));
+            latestActeurs.add(acteur);
+        }, acteurs);
+        acteurIdCache.putAll(latestActeurs);
+
+        log.info("Warm-up: {} films, {} acteurs in {} ms", ids.size(), latestActeurs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
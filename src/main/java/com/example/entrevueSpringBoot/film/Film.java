@@ -1,6 +1,7 @@
 package com.example.entrevueSpringBoot.film;
 
 import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,7 +9,7 @@ import javax.persistence.*;
 import java.util.List;
 
 import static javax.persistence.CascadeType.*;
-import static javax.persistence.FetchType.EAGER;
+import static javax.persistence.FetchType.LAZY;
 
 @Entity
 // TODO: is film's titre unique ?
@@ -20,9 +21,16 @@ import static javax.persistence.FetchType.EAGER;
 public class Film {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE with a pooled optimizer (allocationSize > 1) rather than IDENTITY:
+    // IDENTITY requires an INSERT per persist to get the id back, which disables JDBC insert batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "film_seq")
+    @SequenceGenerator(name = "film_seq", sequenceName = "film_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @JsonIgnore // not on the Film model, exposed as ETag by FilmController#getFilm
+    private Long version;
+
     private String titre;
     private String description;
 
@@ -35,9 +43,10 @@ public class Film {
             // a film has many acteurs, an acteur can play on many films
             // so it does not make sense to remove an acteur when a film is removed...
     },
-            // there is only one endpoint in the app
-            // and it returns a film & its acteurs
-            // EAGER is fine and will save round-trips to the database
+            // LAZY (default for @ManyToMany) rather than EAGER: each use case declares its own fetch plan
+            // - GET film(s) fetch the acteurs with the film in one query (entity graph, JOIN FETCH)
+            // - save, version lookups and summary listings do not load the acteurs at all
+            // see FilmRepository
             //
             // the only endpoints in this app are managing Film and Acteur
             // with the exact same fields as the entities so this app is using
@@ -45,18 +54,18 @@ public class Film {
             // (avoiding dto classes and mappers that are useless for this very specific simple app)
             //
             // to prevent the View (JSON serialization process) modifying the underlying database,
-            // we set property "spring.jpa.open-in-view=false" ; EAGER is handy because it prevents a
-            // "org.hibernate.LazyInitializationException : could not initialize proxy – no Session"
-            // when jackson calls Film#getActeurs()
-            //
-            // if we used fetch = LAZY we would need to call #getActeurs beforehand (purposely or
-            // by mapping to a dto) in order to avoid the LazyInitializationException
-            fetch = EAGER
+            // we set property "spring.jpa.open-in-view=false" ; jackson never initializes a lazy association
+            // (it would throw a "org.hibernate.LazyInitializationException : could not initialize proxy – no Session")
+            // thanks to the Hibernate5Module, see EntrevueSpringBootApplication#hibernate5Module
+            fetch = LAZY
     )
     @JoinTable(// TODO: can an acteur play in many films ?
             name = "acteurs_films", // convention: alphanumeric ("acteurs" first, then "films") & plural
             joinColumns = @JoinColumn(name = "film_id"),
-            inverseJoinColumns = @JoinColumn(name = "acteur_id")
+            inverseJoinColumns = @JoinColumn(name = "acteur_id"),
+            // films of an acteur (reverse direction), see FilmRepository#findSummariesByActeurIdAfter
+            // film_id too: the films of a page are read from the index only, already ordered by film_id
+            indexes = @Index(name = "acteurs_films_acteur_id_film_id", columnList = "acteur_id, film_id")
     )
     private List<Acteur> acteurs;
 }
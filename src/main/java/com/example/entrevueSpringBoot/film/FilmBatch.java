@@ -0,0 +1,19 @@
+package com.example.entrevueSpringBoot.film;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Films of a batch GET by ids, in the requested order, and the requested ids not found.
+ *
+ * @see FilmController#getFilmsByIds
+ */
+@Getter
+@RequiredArgsConstructor
+public class FilmBatch {
+
+    private final List<Film> films;
+    private final List<Long> missing;
+}
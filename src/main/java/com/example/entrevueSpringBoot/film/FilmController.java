@@ -1,29 +1,280 @@
 package com.example.entrevueSpringBoot.film;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
 
 @RestController
 @RequiredArgsConstructor
+@Profile("!reactive") // see ReactiveFilmController
 public class FilmController {
 
+    /**
+     * Number of films saved per transaction by {@link #postFilms}, a multiple of hibernate.jdbc.batch_size.
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * Maximum number of films per page of {@link #getFilms}.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Suffix of the ETag of a gzip-compressed film, another representation of the same film.
+     */
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
     private final FilmRepository repository;
+    private final FilmResponseCache responseCache;
+    private final FilmSearchIndex searchIndex;
+    private final FilmNdjsonExporter exporter;
+    private final ObjectMapper objectMapper;
+    private final Optional<FilmIngestionQueue> ingestionQueue; // app.ingestion.mode=write-behind
 
+    /**
+     * Get a film, with a strong ETag on its id & version.
+     *
+     * The film is JSON, or CBOR / Smile when accepted (Accept header), see {@link FilmFormat}. Large films are
+     * gzip-compressed when accepted (Accept-Encoding header), from the compressed bytes of {@link FilmResponseCache}.
+     *
+     * A conditional GET (If-None-Match) is answered 304 Not Modified from the cached film or else from a lookup of
+     * the film's version only: acteurs are not loaded and the film is not serialized.
+     */
     @GetMapping("/api/film/{id}")
-    public Film getFilm(@PathVariable long id) { // @PathVariable required, long never null
-        // two steps for debugging purposes
-        //noinspection UnnecessaryLocalVariable
-        Film film = repository.getById(id);
-        return film;
+    @Timed(value = "film.get", histogram = true)
+    public ResponseEntity<byte[]> getFilm(@PathVariable long id, WebRequest request) { // @PathVariable required, long never null
+        FilmFormat format = FilmFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            FilmResponseCache.Entry cached = responseCache.getIfPresent(id, format);
+            long version = cached != null ? cached.getVersion() : repository.getVersionById(id);
+            // the client's stored representation is gzip-compressed or not, both are still current
+            String gzipETag = eTag(id, version, format, true);
+            String eTag = ifNoneMatch.contains(gzipETag) ? gzipETag : eTag(id, version, format, false);
+            if (request.checkNotModified(eTag)) return null; // 304 Not Modified, with ETag
+        }
+
+        // film already serialized: on cache hit, neither Hibernate nor Jackson are involved
+        FilmResponseCache.Entry film = responseCache.get(id, format, repository::getById);
+        boolean gzip = film.getGzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                // shared caches must not serve a representation for another format or encoding
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(eTag(id, film.getVersion(), format, gzip));
+        if (!gzip) return response.body(film.getBytes());
+
+        // not compressed again by server.compression: Tomcat leaves responses with a Content-Encoding as is
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(film.getGzip());
+    }
+
+    private static String eTag(long id, long version, FilmFormat format, boolean gzip) {
+        return String.format("\"%d-%d%s%s\"", id, version, format.getETagSuffix(), gzip ? GZIP_ETAG_SUFFIX : ""); // strong, quoted
+    }
+
+    /**
+     * @param acceptEncoding e.g. "gzip, deflate, br" or "gzip;q=1.0, identity; q=0.5, *;q=0"
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        Boolean gzip = null;
+        Boolean any = null; // "*", unless gzip is listed
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+
+            boolean accepted = true; // q=0 is "not acceptable"
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) accepted = !parameter.substring(2).trim().matches("0(\\.0{0,3})?");
+            }
+
+            if (name.equalsIgnoreCase("gzip")) gzip = accepted;
+            else if (name.equals("*")) any = accepted;
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(any);
+    }
+
+    /**
+     * Keyset pagination of films, ordered by id.
+     *
+     * The next page is given by the Link header (rel="next"), absent on the last page.
+     *
+     * @param after  id of the last film of the previous page, 0 (default) for the first page
+     * @param fields "summary" for id & titre only, otherwise films with their acteurs
+     */
+    @GetMapping("/api/films")
+    public ResponseEntity<List<?>> getFilms(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String fields
+    ) {
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<?> films;
+        long last;
+        if ("summary".equals(fields)) {
+            List<FilmSummary> summaries = repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+            films = summaries;
+            last = summaries.isEmpty() ? after : summaries.get(summaries.size() - 1).getId();
+        } else {
+            List<Film> full = repository.findAfter(after, limit);
+            films = full;
+            last = full.isEmpty() ? after : full.get(full.size() - 1).getId();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (films.size() == limit) { // maybe more
+            UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("after", last);
+            response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", next.toUriString()));
+        }
+        return response.body(films);
+    }
+
+    /**
+     * Films by ids, with their acteurs, in a single query and a single transaction: GET /api/films?ids=1,2,3
+     *
+     * Ids not found are listed in "missing" instead of failing the whole batch with 404.
+     * At most {@link #MAX_PAGE_SIZE} ids, otherwise 400 Bad Request.
+     */
+    @GetMapping(value = "/api/films", params = "ids") // rather than #getFilms
+    public FilmBatch getFilmsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("At most %d ids", MAX_PAGE_SIZE));
+        }
+
+        Set<Long> unique = new LinkedHashSet<>(ids); // requested order
+        Map<Long, Film> found = new HashMap<>();
+        if (!unique.isEmpty()) {
+            for (Film film : repository.findAllWithActeursByIdIn(unique)) found.put(film.getId(), film);
+        }
+
+        List<Film> films = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : unique) {
+            Film film = found.get(id);
+            if (film != null) films.add(film);
+            else missing.add(id);
+        }
+        return new FilmBatch(films, missing);
+    }
+
+    /**
+     * Same as {@link #getFilmsByIds} for id lists too long for a URL, as a JSON array: [1,2,3]
+     */
+    @PostMapping("/api/films/batch")
+    public FilmBatch postFilmsBatch(@RequestBody List<Long> ids) {
+        return getFilmsByIds(ids);
+    }
+
+    /**
+     * Full-text search of films by the words of their titre & description, best ranked first, without acteurs.
+     *
+     * Served from memory, see {@link FilmSearchIndex}. The next page is given by the Link header (rel="next").
+     *
+     * @param offset number of films of the previous pages
+     */
+    @GetMapping("/api/films/search")
+    public ResponseEntity<List<FilmSearchIndex.Hit>> searchFilms(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        offset = Math.max(0, offset);
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<FilmSearchIndex.Hit> films = searchIndex.search(q, offset, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (films.size() == limit) { // maybe more
+            UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("offset", offset + limit);
+            response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", next.toUriString()));
+        }
+        return response.body(films);
+    }
+
+    /**
+     * Export of all films with their acteurs, as NDJSON streamed from the database.
+     */
+    @GetMapping(value = "/api/films/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFilms() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exporter::export); // written asynchronously, after this method returns
     }
 
+    /**
+     * Save a film, 201 Created with the saved film.
+     *
+     * In write-behind ingestion mode, the film is only queued: 202 Accepted with its ticket, whose status is given
+     * by {@link FilmIngestionController}, or 429 Too Many Requests when the queue is full.
+     */
     @PostMapping("/api/film")
-    @ResponseStatus(HttpStatus.CREATED)
-    public Film postFilm(@RequestBody Film film) {
+    @Timed(value = "film.post", histogram = true)
+    public ResponseEntity<?> postFilm(@RequestBody Film film) {
+        if (ingestionQueue.isPresent()) {
+            return ingestionQueue.get().enqueue(film)
+                    .<ResponseEntity<?>>map(status -> ResponseEntity.accepted()
+                            .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                                    .path("/api/films/ingestion/{ticket}")
+                                    .buildAndExpand(status.getTicket())
+                                    .toUri())
+                            .body(status))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, "1") // seconds
+                            .build());
+        }
+
         // two steps for debugging purposes
         //noinspection UnnecessaryLocalVariable
         Film saved = repository.save(film);
-        return saved;
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    /**
+     * Bulk ingestion of films, as a JSON array or as NDJSON (one film per line).
+     *
+     * The body is streamed and saved by chunks of {@link #BULK_CHUNK_SIZE} films, one transaction per chunk,
+     * so memory does not depend on the size of the body. Chunks saved before a failing chunk are not rolled back.
+     */
+    @PostMapping(value = "/api/films/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public Map<String, Object> postFilms(InputStream body) throws IOException {
+        int created = 0;
+
+        // MappingIterator reads both a root-level JSON array and a sequence of root-level values (NDJSON)
+        try (MappingIterator<Film> films = objectMapper.readerFor(Film.class).readValues(body)) {
+            List<Film> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+            while (films.hasNextValue()) {
+                chunk.add(films.nextValue());
+                if (chunk.size() == BULK_CHUNK_SIZE) {
+                    created += repository.saveAll(chunk).size();
+                    chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) created += repository.saveAll(chunk).size();
+        }
+
+        return Collections.singletonMap("created", created);
     }
 }
@@ -0,0 +1,52 @@
+package com.example.entrevueSpringBoot.film;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Representations of a film: JSON, and the binary formats CBOR & Smile (same model, Jackson data formats).
+ *
+ * Binary formats are smaller and cheaper to parse for service-to-service calls, see FilmFormatsConfiguration.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum FilmFormat {
+
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+    SMILE(new MediaType("application", "x-jackson-smile"), "-smile"); // see MappingJackson2SmileHttpMessageConverter
+
+    private final MediaType mediaType;
+
+    /**
+     * Suffix of the ETag: a strong ETag identifies a representation, not only a version of the film.
+     */
+    private final String eTagSuffix;
+
+    /**
+     * Format of the best accepted media type, JSON without Accept header or without an accepted binary format.
+     */
+    public static FilmFormat negotiate(String accept) {
+        if (accept == null) return JSON;
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) continue; // explicitly not accepted
+            for (FilmFormat format : values()) { // JSON first: */* is JSON
+                if (mediaType.includes(format.mediaType)) return format;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR & Smile message converters with the application's Jackson configuration (Hibernate5Module,
+ * FilmJsonSerializer...), for the request & response bodies of all endpoints and for {@link FilmResponseCache}.
+ *
+ * Spring MVC registers both converters by default when their data format is on the classpath, but with a default
+ * ObjectMapper: these beans replace them, at the same position in the converters, after JSON (JSON stays the
+ * representation of Accept: *&#47;*).
+ *
+ * @see HttpMessageConverters
+ */
+@Configuration
+public class FilmFormatsConfiguration {
+
+    /**
+     * @param builder Spring Boot's builder, a new instance per injection point
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+
+/**
+ * Status of films posted in write-behind ingestion mode, see {@link FilmIngestionQueue}.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.ingestion.mode", havingValue = "write-behind")
+@Profile("!reactive")
+public class FilmIngestionController {
+
+    private final FilmIngestionQueue queue;
+
+    @GetMapping("/api/films/ingestion/{ticket}")
+    public FilmIngestionStatus getStatus(@PathVariable String ticket) {
+        return queue.getStatus(ticket).orElseThrow(() ->
+                new EntityNotFoundException(
+                        "ingestion ticket", // entity name
+                        Collections.singletonMap("ticket", ticket) // criteria
+                )
+        );
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion of posted films, app.ingestion.mode=write-behind.
+ *
+ * POST /api/film only enqueues the film (202 Accepted with a ticket, 429 Too Many Requests when the queue is full).
+ * A single writer thread drains the queue by batches (group commit): the films of a batch are saved with
+ * {@link FilmRepository#saveAll}, a single acteurs resolution pass and a single transaction, so the throughput
+ * is no longer bounded by the commit rate of the database.
+ *
+ * Conflicts are reported per film: titres already in database or twice in the batch are checked before saving.
+ * If the batch still violates a UNIQUE constraint (concurrent insert), its films are saved one by one.
+ *
+ * The status of a ticket is kept app.ingestion.status-retention after the last change, and at most
+ * app.ingestion.status-maximum-size statuses are kept: under sustained ingestion the oldest ones are evicted before
+ * their retention. An expired or evicted ticket answers 404, like an unknown one. Queued films are lost if
+ * the application is killed: they are not durable until CREATED.
+ *
+ * TODO: is film's titre unique ?
+ */
+@Component
+@ConditionalOnProperty(name = "app.ingestion.mode", havingValue = "write-behind")
+@Slf4j
+public class FilmIngestionQueue {
+
+    private final FilmRepository repository;
+    private final int batchSize;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, FilmIngestionStatus> statuses;
+    private final Counter conflicts;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public FilmIngestionQueue(
+            FilmRepository repository,
+            @Value("${app.ingestion.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.ingestion.batch-size:500}") int batchSize, // a multiple of hibernate.jdbc.batch_size
+            @Value("${app.ingestion.status-retention:1h}") Duration statusRetention,
+            @Value("${app.ingestion.status-maximum-size:100000}") long statusMaximumSize, // memory bound, whatever the ingest rate
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .maximumSize(statusMaximumSize)
+                .build();
+
+        Gauge.builder("film.ingestion.queue.size", queue, Collection::size).register(meterRegistry);
+        this.conflicts = meterRegistry.counter("film.ingestion.conflicts");
+    }
+
+    @RequiredArgsConstructor
+    private static class Pending {
+        final String ticket;
+        final Film film;
+    }
+
+    /**
+     * @return the PENDING status of the film, or empty if the queue is full
+     */
+    public Optional<FilmIngestionStatus> enqueue(Film film) {
+        FilmIngestionStatus status = FilmIngestionStatus.pending(UUID.randomUUID().toString());
+        statuses.put(status.getTicket(), status); // before the writer may update it
+        if (!queue.offer(new Pending(status.getTicket(), film))) {
+            statuses.invalidate(status.getTicket());
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    /**
+     * @return the status, or empty if unknown or expired
+     */
+    public Optional<FilmIngestionStatus> getStatus(String ticket) {
+        return Optional.ofNullable(statuses.getIfPresent(ticket));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "film-ingestion-writer");
+        writer.start();
+    }
+
+    /**
+     * Saves the films still queued before returning.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join();
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS); // to check running
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                save(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) { // the writer must survive
+                log.error("Film ingestion batch failed", e);
+                for (Pending pending : batch) {
+                    if (isPending(pending)) fail(pending, e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Save a batch of films, reporting the status of each of them.
+     */
+    void save(List<Pending> batch) {
+        // conflicts known before saving: titres in database, then titres twice in the batch (the first one wins)
+        Set<String> titres = new HashSet<>();
+        for (Pending pending : batch) {
+            if (pending.film.getTitre() != null) titres.add(pending.film.getTitre());
+        }
+        Set<String> taken = titres.isEmpty() ? new HashSet<>() : new HashSet<>(repository.findTitresByTitreIn(titres));
+
+        List<Pending> toSave = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            String titre = pending.film.getTitre();
+            if (titre != null && !taken.add(titre)) conflict(pending, String.format("film titre \"%s\" already exists", titre));
+            else toSave.add(pending);
+        }
+        if (toSave.isEmpty()) return;
+
+        // saveAll changes the films (ids, acteurs references), copies are saved one by one on rollback
+        List<Film> films = new ArrayList<>(toSave.size());
+        List<Film> copies = new ArrayList<>(toSave.size());
+        for (Pending pending : toSave) {
+            films.add(pending.film);
+            copies.add(copyOf(pending.film));
+        }
+
+        try {
+            List<Film> saved = repository.saveAll(films);
+            for (int i = 0; i < toSave.size(); i++) created(toSave.get(i), saved.get(i));
+        } catch (DataIntegrityViolationException e) { // concurrent insert of a titre or of an acteur
+            log.debug("Film ingestion batch conflict, saving films one by one", e);
+            for (int i = 0; i < toSave.size(); i++) {
+                try {
+                    created(toSave.get(i), repository.save(copies.get(i)));
+                } catch (DataIntegrityViolationException conflict) {
+                    conflict(toSave.get(i), conflict.getMostSpecificCause().getMessage());
+                } catch (RuntimeException failure) {
+                    fail(toSave.get(i), failure);
+                }
+            }
+        }
+    }
+
+    private boolean isPending(Pending pending) {
+        FilmIngestionStatus status = statuses.getIfPresent(pending.ticket);
+        return status != null && status.getState() == FilmIngestionStatus.State.PENDING;
+    }
+
+    private void created(Pending pending, Film film) {
+        statuses.put(pending.ticket, new FilmIngestionStatus(pending.ticket, FilmIngestionStatus.State.CREATED, film.getId(), null));
+    }
+
+    private void conflict(Pending pending, String message) {
+        conflicts.increment();
+        statuses.put(pending.ticket, new FilmIngestionStatus(pending.ticket, FilmIngestionStatus.State.CONFLICT, null, message));
+    }
+
+    private void fail(Pending pending, RuntimeException e) {
+        statuses.put(pending.ticket, new FilmIngestionStatus(pending.ticket, FilmIngestionStatus.State.FAILED, null, e.getMessage()));
+    }
+
+    /**
+     * Copy of a film as posted, acteurs included.
+     */
+    private static Film copyOf(Film film) {
+        Film copy = new Film();
+        copy.setId(film.getId());
+        copy.setTitre(film.getTitre());
+        copy.setDescription(film.getDescription());
+        if (film.getActeurs() != null) {
+            List<Acteur> acteurs = new ArrayList<>(film.getActeurs().size());
+            for (Acteur acteur : film.getActeurs()) {
+                Acteur acteurCopy = new Acteur();
+                acteurCopy.setId(acteur.getId());
+                acteurCopy.setNom(acteur.getNom());
+                acteurCopy.setPrenom(acteur.getPrenom());
+                acteurs.add(acteurCopy);
+            }
+            copy.setActeurs(acteurs);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Status of a film posted in write-behind ingestion mode, see {@link FilmIngestionQueue}.
+ */
+@Getter
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FilmIngestionStatus {
+
+    public enum State {
+        PENDING, // queued, not saved yet
+        CREATED,
+        CONFLICT, // UNIQUE constraint violation, see DaoExceptionsControllerAdvice
+        FAILED
+    }
+
+    private final String ticket;
+    private final State state;
+    private final Long filmId; // CREATED only
+    private final String message; // CONFLICT & FAILED only
+
+    static FilmIngestionStatus pending(String ticket) {
+        return new FilmIngestionStatus(ticket, State.PENDING, null, null);
+    }
+}
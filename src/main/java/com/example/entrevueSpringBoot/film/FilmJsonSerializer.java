@@ -0,0 +1,64 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.example.entrevueSpringBoot.acteur.ActeurJsonSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.hibernate.Hibernate;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written JSON serializer of Film, registered on the application's ObjectMapper by @JsonComponent.
+ *
+ * Same JSON as the default bean serializer (same fields, same order, nulls written, version ignored) without its
+ * per-property reflective accessors: each field is written straight to the generator, field names are pre-encoded
+ * and quoted once. With ObjectMapper#writeValueAsBytes (see FilmResponseCache) the generator writes into Jackson's
+ * recycled buffers (BufferRecycler), no intermediate String of the JSON.
+ *
+ * Acteurs not loaded (LAZY, see Film#acteurs) are written null, as the Hibernate5Module does.
+ */
+@JsonComponent
+public class FilmJsonSerializer extends StdSerializer<Film> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITRE = new SerializedString("titre");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString ACTEURS = new SerializedString("acteurs");
+
+    public FilmJsonSerializer() {
+        super(Film.class);
+    }
+
+    @Override
+    public void serialize(Film film, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(film);
+
+        generator.writeFieldName(ID);
+        if (film.getId() == null) generator.writeNull();
+        else generator.writeNumber(film.getId());
+
+        generator.writeFieldName(TITRE);
+        generator.writeString(film.getTitre()); // null written as null
+
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(film.getDescription());
+
+        generator.writeFieldName(ACTEURS);
+        List<Acteur> acteurs = film.getActeurs();
+        if (acteurs == null || !Hibernate.isInitialized(acteurs)) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(acteurs, acteurs.size());
+            for (Acteur acteur : acteurs) ActeurJsonSerializer.write(acteur, generator);
+            generator.writeEndArray();
+        }
+
+        generator.writeEndObject();
+    }
+}
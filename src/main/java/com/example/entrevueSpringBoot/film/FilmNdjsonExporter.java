@@ -0,0 +1,102 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.*;
+
+/**
+ * Export of all films with their acteurs as NDJSON (one film per line), same JSON as GET /api/film/{id}.
+ *
+ * Films are streamed from a forward-only JDBC cursor and written as they are read, grouped by film id:
+ * neither the persistence context nor the JSON hold more than one film, whatever the size of the catalogue.
+ */
+@Component
+@RequiredArgsConstructor
+public class FilmNdjsonExporter {
+
+    private static final int FETCH_SIZE = 1000;
+
+    // ordered by film id so that the rows of a film are consecutive
+    private static final String SQL = "SELECT f.id, f.titre, f.description, a.id AS acteur_id, a.nom, a.prenom " +
+            "FROM film f " +
+            "LEFT JOIN acteurs_films af ON af.film_id = f.id " +
+            "LEFT JOIN acteur a ON a.id = af.acteur_id " +
+            "ORDER BY f.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param out not closed
+     */
+    public void export(OutputStream out) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            // H2 materializes the whole result of a query before returning its first row, unless lazy
+            // the setting is per connection: it must be reset before the connection goes back to the pool
+            setLazyQueryExecution(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    write(rs, out);
+                }
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+            return null;
+        });
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? 1 : 0));
+        }
+    }
+
+    private void write(ResultSet rs, OutputStream out) throws SQLException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("")); // no space between root values, newline below
+
+            long filmId = 0; // ids start at 1
+            while (rs.next()) {
+                if (rs.getLong("id") != filmId) {
+                    if (filmId != 0) endFilm(generator);
+                    filmId = rs.getLong("id");
+
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", filmId);
+                    generator.writeStringField("titre", rs.getString("titre"));
+                    generator.writeStringField("description", rs.getString("description"));
+                    generator.writeArrayFieldStart("acteurs");
+                }
+
+                long acteurId = rs.getLong("acteur_id");
+                if (rs.wasNull()) continue; // film without acteur
+
+                generator.writeStartObject();
+                generator.writeNumberField("id", acteurId);
+                generator.writeStringField("nom", rs.getString("nom"));
+                generator.writeStringField("prenom", rs.getString("prenom"));
+                generator.writeEndObject();
+            }
+            if (filmId != 0) endFilm(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // client went away
+        }
+    }
+
+    private static void endFilm(JsonGenerator generator) throws IOException {
+        generator.writeEndArray(); // acteurs
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
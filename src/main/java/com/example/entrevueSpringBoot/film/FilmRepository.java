@@ -2,23 +2,36 @@ package com.example.entrevueSpringBoot.film;
 
 import com.example.entrevueSpringBoot.EntityNotFoundException;
 import com.example.entrevueSpringBoot.acteur.Acteur;
-import com.example.entrevueSpringBoot.acteur.ActeurRepository;
-import lombok.EqualsAndHashCode;
+import com.example.entrevueSpringBoot.acteur.ActeurIdCache;
+import com.example.entrevueSpringBoot.acteur.ActeurLocks;
+import com.example.entrevueSpringBoot.acteur.ActeurSearchIndex;
+import com.example.entrevueSpringBoot.acteur.NomPrenom;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Delegate;
+import org.hibernate.proxy.HibernateProxy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.QueryHint;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Repository for Film.
@@ -41,7 +54,9 @@ import java.util.stream.Collectors;
  */
 @Repository
 @RequiredArgsConstructor
-@Transactional // required on #save so that ActeurRepository#find... and FilmJpaRepository#save are made on same transaction
+// read-only by default: Spring's JpaTransactionManager then sets Hibernate's FlushMode.MANUAL (no flush, no dirty
+// checking), loads entities read-only (no snapshot copy of their state) and marks the JDBC connection read-only
+@Transactional(readOnly = true)
 public class FilmRepository {
 
     @Autowired // caveat: no setter injection possible. only FilmRepository knows FilmJpaRepository
@@ -49,13 +64,24 @@ public class FilmRepository {
     @Delegate(excludes = Excludes.class) // keeping delegation for future new methods of FilmJpaRepository
     private FilmJpaRepository jpaRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final JdbcTemplate jdbcTemplate;
-    private final ActeurRepository acteurRepository;
+    private final ActeurIdCache acteurIdCache;
+    private final ActeurLocks acteurLocks;
+    private final ActeurSearchIndex acteurSearchIndex;
+    private final FilmResponseCache responseCache;
+    private final FilmSearchIndex searchIndex;
+    private final FilmSaveTimers timers;
 
     // lombok @Delegate excludes
     private interface Excludes {
         Optional<Film> findById(long id); // use decorated FilmRepository#getById(long) instead
         Film save(Film entity);
+        Film saveAndFlush(Film entity); // use decorated FilmRepository#save(Film) instead
+        List<Film> saveAll(Iterable<Film> entities); // use decorated FilmRepository#saveAll(List) instead
+        Optional<Long> findVersionById(long id); // use decorated FilmRepository#getVersionById(long) instead
     }
 
     /**
@@ -70,6 +96,35 @@ public class FilmRepository {
         );
     }
 
+    /**
+     * Keyset pagination of Films, ordered by id, with their acteurs.
+     *
+     * Two queries whatever the number of films: ids of the page, then films & acteurs of these ids.
+     * A single query with both LIMIT and JOIN FETCH of a collection would be paginated in memory by Hibernate.
+     *
+     * @param after id of the last Film of the previous page, 0 for the first page
+     */
+    public List<Film> findAfter(long after, int limit) {
+        List<Long> ids = jpaRepository.findIdsAfter(after, PageRequest.of(0, limit));
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        return jpaRepository.findAllWithActeursByIdIn(ids);
+    }
+
+    /**
+     * Version of a Film, without loading it nor its acteurs: a primary key lookup.
+     *
+     * @param id Film id, cannot be null
+     */
+    public long getVersionById(long id) throws EntityNotFoundException {
+        return jpaRepository.findVersionById(id).orElseThrow(() ->
+                new EntityNotFoundException(
+                        "film", // entity name
+                        Collections.singletonMap("id", id) // criteria
+                )
+        );
+    }
+
     /**
      * Save a Film.
      *
@@ -79,7 +134,61 @@ public class FilmRepository {
      *
      * TODO: is auteur's combination of nom & prenom unique ?
      */
+    @Transactional // required so that acteurs lookup, EntityManager#getReference and FilmJpaRepository#save are made on same transaction
     public Film save(Film film) {
+        List<Acteur> posted = film.getActeurs() == null ? null : new ArrayList<>(film.getActeurs());
+        resolveActeurs(Collections.singletonList(film));
+
+        // finally, save the film with all managed acteurs
+        // flush so that a UNIQUE constraint violation is thrown here and not on commit (ids are not IDENTITY anymore)
+        Timer.Sample persist = Timer.start();
+        Film saved = jpaRepository.saveAndFlush(film); // requires @Transactional
+        persist.stop(timers.getPersist());
+        responseCache.invalidateAfterCommit(Collections.singletonList(saved.getId()));
+        searchIndex.addAllAfterCommit(Collections.singletonList(saved));
+        return withPostedActeurs(saved, posted);
+    }
+
+    /**
+     * Save many Films in a single transaction.
+     *
+     * Same as {@link #save(Film)} but acteurs of all films are resolved with a single lookup, and inserts are sent
+     * to the database in JDBC batches (see hibernate.jdbc.batch_size). A new acteur shared by several films is only
+     * inserted once.
+     *
+     * Callers should pass bounded chunks: all films stay in the persistence context until the transaction ends.
+     */
+    @Transactional // see #save
+    public List<Film> saveAll(List<Film> films) {
+        List<List<Acteur>> posted = new ArrayList<>(films.size());
+        for (Film film : films) {
+            posted.add(film.getActeurs() == null ? null : new ArrayList<>(film.getActeurs()));
+        }
+        resolveActeurs(films);
+
+        Timer.Sample persist = Timer.start();
+        List<Film> saved = jpaRepository.saveAll(films); // requires @Transactional
+        jpaRepository.flush(); // see #save
+        persist.stop(timers.getPersist());
+
+        List<Film> result = new ArrayList<>(saved.size());
+        List<Long> ids = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            ids.add(saved.get(i).getId());
+            result.add(withPostedActeurs(saved.get(i), posted.get(i)));
+        }
+        responseCache.invalidateAfterCommit(ids);
+        searchIndex.addAllAfterCommit(saved);
+        return result;
+    }
+
+    /**
+     * Replace films' acteurs without id by references to the acteurs having the same nom & prenom in database.
+     *
+     * Ids are taken from {@link ActeurIdCache} or else from a tuple lookup, and the acteurs are attached with
+     * {@link EntityManager#getReference}: there is no query to load them into the persistence context.
+     */
+    private void resolveActeurs(Collection<Film> films) {
         // when saving a new Film we must check if its acteurs without id already exist in database
         // based on the combination of their nom & prenom, otherwise saving would throw a DataIntegrityViolationException
         // due to UNIQUE constraint on nom & prenom in database
@@ -96,58 +205,167 @@ public class FilmRepository {
         // a better approach is to go programmatic and use JDBCTemplate:
         // https://stackoverflow.com/q/23305553 how to bind a list of tuples using Spring JDBCTemplate?
 
-        if (film.getActeurs() != null) {
+        // find films' acteurs sans id
+        // the same new acteur may appear in many films (bulk): all occurrences are replaced by the first one
+        // so that it is persisted once, otherwise the second INSERT would violate the UNIQUE constraint
+        Map<NomPrenom, Acteur> nomPrenomToActeur = new HashMap<>();
+        for (Film film : films) {
+            if (film.getActeurs() == null) continue;
 
-            // find film's acteurs sans id
-            Map<NomPrenom, Integer> nomPrenomToActeurIdx = new HashMap<>();
-            for (int i = 0; i < film.getActeurs().size(); i++) {
-                Acteur acteur = film.getActeurs().get(i);
+            for (ListIterator<Acteur> it = film.getActeurs().listIterator(); it.hasNext(); ) {
+                Acteur acteur = it.next();
                 if (acteur.getId() != null) continue;
                 if (acteur.getNom() == null) continue; // invalid TODO: is acteur's nom required ?
                 if (acteur.getPrenom() == null) continue; // invalid TODO: is acteur's prenom required ?
 
-                nomPrenomToActeurIdx.put(new NomPrenom(acteur), i);
+                Acteur first = nomPrenomToActeur.putIfAbsent(new NomPrenom(acteur), acteur);
+                if (first != null) it.set(first);
             }
+        }
 
-            // search these acteurs by nom & prenom in db with optimized query
-            // using JDBC because JPA can't handle IN tuples
-            // TODO: [security] unsafe SQL statement
-            List<Map<String, Object>> dbActeurs = jdbcTemplate.queryForList(String.format(
-                    "SELECT * FROM acteur WHERE (nom, prenom) IN (%s)",
-                    nomPrenomToActeurIdx.keySet().stream()
-                            .map(np -> String.format("('%s','%s')", np.nom, np.prenom))
-                            .collect(Collectors.joining(","))
-            ));
-
-            // search these same acteurs by id using JPA/Hibernate so these are in the persistence context
-            // unfortunately JDBC can't (don't know how to) update the persistence context
-            //
-            // we can't set the id ourselves, it is managed by Hibernate and very sensitive
-            // https://stackoverflow.com/q/13370221/#comment63586228_13370221 PersistentObjectException: detached entity passed to persist thrown by JPA and Hibernate
-            List<Long> acteursIds = dbActeurs.stream().map(m -> (Long) m.get("id")).collect(Collectors.toList());
-            List<Acteur> managedActeurs = acteurRepository.findAllByIdIn(acteursIds); // requires @Transactional
-
-            // update film with the managed acteurs
-            for (Acteur managedActeur : managedActeurs) {
-                Integer acteurIdx = nomPrenomToActeurIdx.get(
-                        new NomPrenom(managedActeur.getNom(), managedActeur.getPrenom()) // NomPrenom map key
-                );
-                film.getActeurs().set(acteurIdx, managedActeur);
+        // no acteur sans id, nothing to search
+        if (nomPrenomToActeur.isEmpty()) return;
+
+        // first from cache, steady state: all acteurs are known
+        Timer.Sample lookup = Timer.start();
+        List<NomPrenom> hits = new ArrayList<>();
+        List<NomPrenom> misses = new ArrayList<>();
+        for (Map.Entry<NomPrenom, Acteur> e : nomPrenomToActeur.entrySet()) {
+            Long id = acteurIdCache.get(e.getKey());
+            if (id != null) {
+                e.getValue().setId(id); // posted acteur, not the one to be persisted
+                hits.add(e.getKey());
+            } else {
+                misses.add(e.getKey());
             }
         }
+        // a cached id of a deleted acteur fails the film insert on the foreign key: looked up again on the next save
+        if (!hits.isEmpty()) acteurIdCache.invalidateAllAfterRollback(hits);
 
-        // finally, save the film with all managed acteurs
-        return jpaRepository.save(film); // requires @Transactional
+        // then search the other acteurs by nom & prenom in db with optimized query
+        // using JDBC because JPA can't handle IN tuples
+        if (!misses.isEmpty()) {
+            // locked until commit: a concurrent save of the same new acteurs waits for this one to insert them,
+            // then finds them instead of violating the UNIQUE constraint (409)
+            Timer.Sample lock = Timer.start();
+            acteurLocks.lockUntilCompletion(misses); // requires @Transactional
+            lock.stop(timers.getActeursLock());
+
+            for (Map<String, Object> dbActeur : findActeursByNomPrenom(misses)) {
+                nomPrenomToActeur.get(
+                        new NomPrenom((String) dbActeur.get("nom"), (String) dbActeur.get("prenom")) // NomPrenom map key
+                ).setId((Long) dbActeur.get("id"));
+            }
+        }
+        lookup.stop(timers.getActeursLookup());
+
+        // still without id: new acteurs, persisted with the film(s)
+        List<Acteur> newActeurs = new ArrayList<>();
+        for (Acteur acteur : nomPrenomToActeur.values()) {
+            if (acteur.getId() == null) newActeurs.add(acteur);
+        }
+
+        // update films with references to the existing acteurs
+        // we can't persist posted acteurs with the id set, it is managed by Hibernate and very sensitive
+        // https://stackoverflow.com/q/13370221/#comment63586228_13370221 PersistentObjectException: detached entity passed to persist thrown by JPA and Hibernate
+        //
+        // a reference is either the acteur already in the persistence context or a proxy with only the id:
+        // no query, unlike a find
+        Timer.Sample references = Timer.start();
+        for (Film film : films) {
+            if (film.getActeurs() == null) continue;
+
+            for (ListIterator<Acteur> it = film.getActeurs().listIterator(); it.hasNext(); ) {
+                Acteur acteur = it.next();
+                if (acteur.getId() == null) continue; // new acteur, to be persisted
+                if (nomPrenomToActeur.get(new NomPrenom(acteur)) != acteur) continue; // posted with an id
+
+                it.set(entityManager.getReference(Acteur.class, acteur.getId())); // requires @Transactional
+            }
+        }
+        references.stop(timers.getActeursReferences());
+
+        // existing acteurs have their id, new acteurs will have theirs on commit
+        acteurIdCache.putAllAfterCommit(nomPrenomToActeur.values());
+        if (!newActeurs.isEmpty()) acteurSearchIndex.addAllAfterCommit(newActeurs);
+    }
+
+    /**
+     * Copy of a saved film with its acteurs as posted (with their ids).
+     *
+     * Acteurs references from {@link #resolveActeurs} may be uninitialized proxies: they can't be serialized
+     * outside of the transaction (open-in-view is false) and loading them would be the query we avoided.
+     */
+    private static Film withPostedActeurs(Film saved, List<Acteur> posted) {
+        if (saved.getActeurs() == null) return saved;
+
+        List<Acteur> acteurs = new ArrayList<>(saved.getActeurs().size());
+        for (int i = 0; i < saved.getActeurs().size(); i++) {
+            Acteur acteur = saved.getActeurs().get(i);
+            if (acteur instanceof HibernateProxy) {
+                // same nom & prenom as posted, by construction
+                Acteur copy = new Acteur();
+                copy.setId((Long) ((HibernateProxy) acteur).getHibernateLazyInitializer().getIdentifier());
+                copy.setNom(posted.get(i).getNom());
+                copy.setPrenom(posted.get(i).getPrenom());
+                acteur = copy;
+            }
+            acteurs.add(acteur);
+        }
+
+        Film copy = new Film();
+        copy.setId(saved.getId());
+        copy.setVersion(saved.getVersion());
+        copy.setTitre(saved.getTitre());
+        copy.setDescription(saved.getDescription());
+        copy.setActeurs(acteurs);
+        return copy;
     }
-    @RequiredArgsConstructor
-    @EqualsAndHashCode // for #save, helper class as Map key thanks to lombok's generated #equals, #hashCode
-    private class NomPrenom {
-        private final String nom;
-        private final String prenom;
-        public NomPrenom(Acteur acteur) {
-            nom = acteur.getNom();
-            prenom = acteur.getPrenom();
+
+    /**
+     * Arities of the tuple lookups in {@link #findActeursByNomPrenom}.
+     *
+     * Tuples are bound as parameters and padded to the next arity, so that only these few SQL strings are
+     * ever sent to H2 and its query cache (QUERY_CACHE_SIZE, per connection) reuses the parsed statements.
+     * More tuples than the largest arity are looked up by chunks.
+     *
+     * Package-private: same lookups in {@link ReactiveFilmRepository}.
+     */
+    static final int[] ACTEUR_LOOKUP_ARITIES = {1, 2, 4, 8, 16, 32};
+    private static final String[] ACTEUR_LOOKUP_SQL = Arrays.stream(ACTEUR_LOOKUP_ARITIES)
+            .mapToObj(arity -> String.format(
+                    "SELECT id, nom, prenom FROM acteur WHERE (nom, prenom) IN (%s)",
+                    String.join(",", Collections.nCopies(arity, "(?,?)"))
+            ))
+            .toArray(String[]::new);
+
+    /**
+     * SELECT * FROM acteur WHERE (nom, prenom) IN (('Ford', 'Harrison'),('Hamill', 'Mark'));
+     *
+     * @param nomPrenoms not empty
+     */
+    private List<Map<String, Object>> findActeursByNomPrenom(List<NomPrenom> nomPrenoms) {
+        int maxArity = ACTEUR_LOOKUP_ARITIES[ACTEUR_LOOKUP_ARITIES.length - 1];
+
+        List<Map<String, Object>> dbActeurs = new ArrayList<>(nomPrenoms.size());
+        for (int from = 0; from < nomPrenoms.size(); from += maxArity) {
+            List<NomPrenom> chunk = nomPrenoms.subList(from, Math.min(from + maxArity, nomPrenoms.size()));
+
+            int arityIdx = 0;
+            while (ACTEUR_LOOKUP_ARITIES[arityIdx] < chunk.size()) arityIdx++;
+            int arity = ACTEUR_LOOKUP_ARITIES[arityIdx];
+
+            Object[] args = new Object[arity * 2];
+            for (int i = 0; i < arity; i++) {
+                // padding with the last tuple, duplicates in IN do not change the result
+                NomPrenom np = chunk.get(Math.min(i, chunk.size() - 1));
+                args[i * 2] = np.getNom();
+                args[i * 2 + 1] = np.getPrenom();
+            }
+
+            dbActeurs.addAll(jdbcTemplate.queryForList(ACTEUR_LOOKUP_SQL[arityIdx], args));
         }
+        return dbActeurs;
     }
 
     private interface FilmJpaRepository extends org.springframework.data.repository.Repository<Film, Long> {
@@ -157,6 +375,21 @@ public class FilmRepository {
          */
         Film save(Film film);
 
+        /**
+         * @see JpaRepository#saveAndFlush
+         */
+        Film saveAndFlush(Film film);
+
+        /**
+         * @see CrudRepository#saveAll
+         */
+        List<Film> saveAll(Iterable<Film> films);
+
+        /**
+         * @see JpaRepository#flush
+         */
+        void flush();
+
         /**
          * @param id Film id, cannot be null
          *
@@ -172,7 +405,61 @@ public class FilmRepository {
         //   it returns the actual data (no proxy) except relations with fetch = LAZY that query database on demand
         //
         // https://stackoverflow.com/q/69109649/#70293442 Hibernate: findById vs getbyId
+        //
+        // acteurs are fetched in the same query (LEFT JOIN), see Film#acteurs
+        @EntityGraph(attributePaths = "acteurs")
         Optional<Film> findById(long id);
+
+        /**
+         * @param id Film id, cannot be null
+         */
+        @Query("SELECT f.version FROM Film f WHERE f.id = :id")
+        Optional<Long> findVersionById(@Param("id") long id);
+
+        /**
+         * Keyset pagination of Films summaries, a single query without acteurs.
+         *
+         * @param id id of the last Film of the previous page, 0 for the first page
+         */
+        List<FilmSummary> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+        /**
+         * Keyset pagination of the summaries of the Films of an acteur, a single query.
+         *
+         * Native: a range scan of index acteurs_films(acteur_id, film_id) in film_id order, then a primary key
+         * lookup per film of the page, whatever the number of films of the acteur. JPQL would join acteur too.
+         * Aliases quoted: H2 upper-cases unquoted aliases, the projection needs "id" & "titre".
+         *
+         * @param after id of the last Film of the previous page, 0 for the first page
+         */
+        @Query(value = "SELECT f.id AS \"id\", f.titre AS \"titre\" " +
+                "FROM acteurs_films af JOIN film f ON f.id = af.film_id " +
+                "WHERE af.acteur_id = :acteurId AND af.film_id > :after " +
+                "ORDER BY af.film_id",
+                nativeQuery = true)
+        List<FilmSummary> findSummariesByActeurIdAfter(@Param("acteurId") long acteurId, @Param("after") long after, Pageable pageable);
+
+        /**
+         * Titres among the given ones of the Films in database, see FilmIngestionQueue's conflicts check.
+         *
+         * TODO: is film's titre unique ?
+         */
+        @Query("SELECT f.titre FROM Film f WHERE f.titre IN :titres")
+        List<String> findTitresByTitreIn(@Param("titres") Collection<String> titres);
+
+        /**
+         * Ids of the latest Films, see CatalogueWarmUp.
+         */
+        @Query("SELECT f.id FROM Film f ORDER BY f.id DESC")
+        List<Long> findLatestIds(Pageable pageable);
+
+        @Query("SELECT f.id FROM Film f WHERE f.id > :after ORDER BY f.id")
+        List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+        // DISTINCT: one Film per row of the join otherwise, but only in memory (not passed through to SQL)
+        @Query("SELECT DISTINCT f FROM Film f LEFT JOIN FETCH f.acteurs WHERE f.id IN :ids ORDER BY f.id")
+        @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+        List<Film> findAllWithActeursByIdIn(@Param("ids") Collection<Long> ids);
     }
 
     // Spring Configuration
@@ -0,0 +1,166 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read-through cache of serialized films (bytes of a {@link FilmFormat}) and their version by film id & format,
+ * for GET /api/film/{id}.
+ *
+ * A hit skips both Hibernate (query, EAGER acteurs join) and Jackson (serialization).
+ * Entries are evicted by size and time-to-live, and invalidated on commit of {@link FilmRepository#save}.
+ *
+ * Films of at least app.film-response-cache.gzip-min-size bytes are also cached gzip-compressed, compressed once per
+ * entry rather than once per response (server.compression), so at the best compression level.
+ *
+ * Hits & misses are exposed as metrics "cache.gets" with tag cache=filmResponses.
+ */
+@Component
+public class FilmResponseCache {
+
+    private final Cache<Key, Entry> cache;
+    private final Map<FilmFormat, ObjectMapper> objectMappers = new EnumMap<>(FilmFormat.class);
+    private final long gzipMinSize;
+
+    public FilmResponseCache(
+            @Value("${app.film-response-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.film-response-cache.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${app.film-response-cache.gzip-min-size:2KB}") DataSize gzipMinSize,
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.gzipMinSize = gzipMinSize.toBytes();
+        // same ObjectMappers as the message converters, see FilmFormatsConfiguration
+        objectMappers.put(FilmFormat.JSON, objectMapper);
+        objectMappers.put(FilmFormat.CBOR, cborConverter.getObjectMapper());
+        objectMappers.put(FilmFormat.SMILE, smileConverter.getObjectMapper());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "filmResponses");
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final long id;
+        private final FilmFormat format;
+    }
+
+    /**
+     * Serialized film with its version.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final long version;
+        private final byte[] bytes;
+        private final byte[] gzip; // null below gzip-min-size: not worth the Content-Encoding
+    }
+
+    /**
+     * Film as JSON.
+     */
+    public Entry get(long id, LongFunction<Film> loader) {
+        return get(id, FilmFormat.JSON, loader);
+    }
+
+    /**
+     * @param loader loads the film on cache miss, its exceptions are propagated and nothing is cached
+     */
+    public Entry get(long id, FilmFormat format, LongFunction<Film> loader) {
+        return cache.get(new Key(id, format), k -> serialize(loader.apply(k.id), format));
+    }
+
+    /**
+     * @return the cached film, or null if not in cache
+     */
+    public Entry getIfPresent(long id, FilmFormat format) {
+        return cache.getIfPresent(new Key(id, format));
+    }
+
+    private Entry serialize(Film film, FilmFormat format) {
+        try {
+            byte[] bytes = objectMappers.get(format).writeValueAsBytes(film);
+            return new Entry(film.getVersion(), bytes, bytes.length >= gzipMinSize ? gzip(bytes, Deflater.BEST_COMPRESSION) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] gzip(byte[] bytes, int level) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new LevelGZIPOutputStream(compressed, level)) {
+            gzip.write(bytes);
+        } catch (IOException e) { // not thrown by ByteArrayOutputStream
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * GZIPOutputStream has no constructor for the compression level, only its Deflater has a setter.
+     */
+    private static class LevelGZIPOutputStream extends GZIPOutputStream {
+
+        LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * Invalidate films, in all formats, once the current transaction is committed.
+     *
+     * Before commit, a concurrent GET would still read the previous film and cache it again.
+     */
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        List<Key> toInvalidate = new ArrayList<>(ids.size() * FilmFormat.values().length);
+        for (Long id : ids) {
+            for (FilmFormat format : FilmFormat.values()) toInvalidate.add(new Key(id, format));
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(toInvalidate);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
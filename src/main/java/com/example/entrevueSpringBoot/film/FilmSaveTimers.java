@@ -0,0 +1,50 @@
+package com.example.entrevueSpringBoot.film;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers of the phases of {@link FilmRepository#save} and {@link FilmRepository#saveAll}, metric "film.save.phase".
+ *
+ * Registered once: looking a meter up in the registry on each save would cost more than what it measures.
+ */
+@Component
+@Getter
+public class FilmSaveTimers {
+
+    /**
+     * Acteurs ids by nom & prenom, from ActeurIdCache then tuple lookup.
+     */
+    private final Timer acteursLookup;
+
+    /**
+     * Wait for the locks of the acteurs missing in ActeurIdCache, see ActeurLocks. Included in acteurs.lookup.
+     */
+    private final Timer acteursLock;
+
+    /**
+     * Acteurs attached to the persistence context with EntityManager#getReference.
+     */
+    private final Timer acteursReferences;
+
+    /**
+     * Persist & flush of the film(s) and new acteurs.
+     */
+    private final Timer persist;
+
+    public FilmSaveTimers(MeterRegistry meterRegistry) {
+        acteursLookup = timer(meterRegistry, "acteurs.lookup");
+        acteursLock = timer(meterRegistry, "acteurs.lock");
+        acteursReferences = timer(meterRegistry, "acteurs.references");
+        persist = timer(meterRegistry, "persist");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("film.save.phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.SearchText;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index of films' titre & description, for full-text search, see FilmController#searchFilms.
+ *
+ * Terms are the words of titre & description, lower case and without accents. Each term maps to the films containing
+ * it (postings) with its weighted frequency: a word of the titre weighs {@link #TITRE_WEIGHT} words of the
+ * description. Films are ranked by TF-IDF: the sum over the terms of the query of the weighted frequency times
+ * ln(1 + films / films containing the term), so rare terms rank higher than common ones.
+ *
+ * A search only reads the postings of the terms of the query: no scan of the films, no database query (no LIKE).
+ *
+ * Built from the film table at startup, then maintained after commit of the transactions saving films.
+ * Writes are serialized, reads are lock-free: a search concurrent to a save may see the film partially indexed.
+ * A rebuild fills a new index aside, then swaps it: searches meanwhile read the previous one, never a partial one.
+ */
+@Component
+@RequiredArgsConstructor
+public class FilmSearchIndex implements SmartInitializingSingleton {
+
+    static final int TITRE_WEIGHT = 3;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Contents contents = new Contents();
+    private Contents building; // being rebuilt, also given the films indexed meanwhile; guarded by this
+
+    private final Object rebuildLock = new Object();
+
+    @RequiredArgsConstructor
+    private static class Indexed {
+        final String titre;
+        final Map<String, Integer> terms; // to remove the film from postings
+    }
+
+    private static class Contents {
+        final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+        final Map<Long, Indexed> films = new ConcurrentHashMap<>();
+
+        void add(long id, String titre, String description) {
+            remove(id);
+
+            Map<String, Integer> terms = new HashMap<>();
+            for (String term : tokenize(titre)) terms.merge(term, TITRE_WEIGHT, Integer::sum);
+            for (String term : tokenize(description)) terms.merge(term, 1, Integer::sum);
+
+            films.put(id, new Indexed(titre, terms));
+            terms.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, frequency));
+        }
+
+        void remove(long id) {
+            Indexed previous = films.remove(id);
+            if (previous == null) return;
+
+            for (String term : previous.terms.keySet()) {
+                postings.computeIfPresent(term, (t, posting) -> {
+                    posting.remove(id);
+                    return posting.isEmpty() ? null : posting;
+                });
+            }
+        }
+    }
+
+    /**
+     * A film found, without its acteurs.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Hit implements FilmSummary {
+        private final Long id;
+        private final String titre;
+        private final double score;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Build the index from the film table, streamed, then replace the current one.
+     *
+     * Films indexed during the rebuild are indexed in both: committed after the rows were read, they win over them.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Contents rebuilt = new Contents();
+            synchronized (this) {
+                building = rebuilt;
+            }
+            try {
+                jdbcTemplate.query("SELECT id, titre, description FROM film", rs -> {
+                    long id = rs.getLong("id");
+                    String titre = rs.getString("titre");
+                    String description = rs.getString("description");
+                    synchronized (this) {
+                        if (!rebuilt.films.containsKey(id)) rebuilt.add(id, titre, description);
+                    }
+                });
+                synchronized (this) {
+                    contents = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    building = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Films containing any word of the query, best ranked first.
+     *
+     * @param offset number of films to skip, of the previous pages
+     * @param limit  maximum number of films
+     */
+    public List<Hit> search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) return Collections.emptyList();
+
+        Contents contents = this.contents; // the same index for the whole search, even if rebuilt meanwhile
+        Map<String, Map<Long, Integer>> postings = contents.postings;
+        Map<Long, Indexed> films = contents.films;
+        int n = films.size();
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null) continue;
+
+            double idf = Math.log(1 + (double) n / posting.size());
+            posting.forEach((id, frequency) -> scores.merge(id, frequency * idf, Double::sum));
+        }
+
+        // top offset + limit only, then the page: no sort of all the films found
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()); // ties: lowest id first
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(ranking); // worst first
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            top.add(score);
+            if (top.size() > offset + limit) top.poll();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(ranking.reversed());
+
+        List<Hit> hits = new ArrayList<>(limit);
+        for (Map.Entry<Long, Double> score : ranked.subList(Math.min(offset, ranked.size()), ranked.size())) {
+            Indexed film = films.get(score.getKey());
+            if (film == null) continue; // removed meanwhile
+            hits.add(new Hit(score.getKey(), film.titre, score.getValue()));
+        }
+        return hits;
+    }
+
+    /**
+     * Index films once the current transaction is committed.
+     *
+     * Films ids are read on commit, so films can be given before being persisted.
+     */
+    public void addAllAfterCommit(Collection<Film> films) {
+        List<Film> toAdd = new ArrayList<>(films);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addAll(toAdd);
+            }
+        });
+    }
+
+    /**
+     * Index committed films, replacing their previous titre & description if already indexed.
+     */
+    public void addAll(Collection<Film> films) {
+        for (Film film : films) {
+            if (film.getId() == null) continue; // not persisted
+            add(film.getId(), film.getTitre(), film.getDescription());
+        }
+    }
+
+    private synchronized void add(long id, String titre, String description) {
+        contents.add(id, titre, description);
+        if (building != null) building.add(id, titre, description);
+    }
+
+    /**
+     * "L'Empire contre-attaque" -> [l, empire, contre, attaque]
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) return Collections.emptyList();
+
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(SearchText.fold(text))) {
+            if (!term.isEmpty()) terms.add(term);
+        }
+        return terms;
+    }
+}
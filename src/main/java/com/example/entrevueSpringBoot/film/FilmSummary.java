@@ -0,0 +1,13 @@
+package com.example.entrevueSpringBoot.film;
+
+/**
+ * Projection of a Film without description nor acteurs, for listings.
+ *
+ * @see <a href="https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#projections.interfaces">Interface-based Projections</a>
+ */
+public interface FilmSummary {
+
+    Long getId();
+
+    String getTitre();
+}
@@ -0,0 +1,32 @@
+package com.example.entrevueSpringBoot.film;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Transaction managers of the reactive profile.
+ *
+ * JPA stays in use (schema, blocking beans such as FilmRepository) but the auto-configured JpaTransactionManager
+ * backs off as soon as R2DBC's transaction manager is declared: both are declared here, and the JPA one is primary
+ * for @Transactional. ReactiveFilmRepository uses the R2DBC one explicitly.
+ *
+ * @see HibernateJpaAutoConfiguration @ConditionalOnMissingBean(TransactionManager.class)
+ * @see R2dbcTransactionManagerAutoConfiguration
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveFilmConfiguration {
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
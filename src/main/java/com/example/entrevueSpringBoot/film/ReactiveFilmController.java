@@ -0,0 +1,39 @@
+package com.example.entrevueSpringBoot.film;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of {@link FilmController}'s GET /api/film/{id} & POST /api/film, profile "reactive".
+ *
+ * Nothing blocks: requests are served by the few event loop threads of Netty, and requests waiting for a database
+ * connection (spring.r2dbc.pool.max-size) do not hold a thread. Same JSON, same statuses, same ETag as FilmController.
+ */
+@RestController
+@RequiredArgsConstructor
+@Profile("reactive")
+public class ReactiveFilmController {
+
+    private final ReactiveFilmRepository repository;
+
+    @GetMapping("/api/film/{id}")
+    public Mono<ResponseEntity<Film>> getFilm(@PathVariable long id, ServerWebExchange exchange) { // @PathVariable required, long never null
+        return repository.getById(id).flatMap(film -> {
+            String eTag = String.format("\"%d-%d\"", id, film.getVersion()); // strong, quoted, see FilmController#eTag
+            if (exchange.checkNotModified(eTag)) return Mono.empty(); // 304 Not Modified, with ETag
+
+            return Mono.just(ResponseEntity.ok().eTag(eTag).body(film));
+        });
+    }
+
+    @PostMapping("/api/film")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Film> postFilm(@RequestBody Mono<Film> film) {
+        return film.flatMap(repository::save);
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.EntityNotFoundException;
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.example.entrevueSpringBoot.acteur.ActeurIdCache;
+import com.example.entrevueSpringBoot.acteur.ActeurSearchIndex;
+import com.example.entrevueSpringBoot.acteur.NomPrenom;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+/**
+ * Non-blocking repository for Film, R2DBC variant of {@link FilmRepository} for {@link ReactiveFilmController}.
+ *
+ * Same tables & sequences as the JPA entities, in plain SQL: Hibernate does not run on R2DBC.
+ * Same acteurs semantics as {@link FilmRepository#save}: acteurs without id are deduplicated by nom & prenom and
+ * replaced by the acteurs having the same nom & prenom in database, if any. The UNIQUE constraints (film's titre,
+ * acteur's nom & prenom) surface as {@link DataIntegrityViolationException}, mapped to 409 CONFLICT.
+ *
+ * TODO: is acteur's combination of nom & prenom unique ?
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveFilmRepository {
+
+    // acteurs ordered as inserted in acteurs_films, as Hibernate does not order them either
+    private static final String FIND_BY_ID_SQL = "SELECT f.id, f.version, f.titre, f.description, " +
+            "a.id AS acteur_id, a.nom, a.prenom " +
+            "FROM film f " +
+            "LEFT JOIN acteurs_films af ON af.film_id = f.id " +
+            "LEFT JOIN acteur a ON a.id = af.acteur_id " +
+            "WHERE f.id = $1";
+
+    // one sequence value per row: Hibernate's pooled optimizer uses the range (value - allocationSize, value] of
+    // each value it gets, so a value taken here is never given by Hibernate (at the cost of a range per row)
+    private static final String NEXT_FILM_ID_SQL = "SELECT NEXT VALUE FOR film_seq";
+    private static final String NEXT_ACTEUR_IDS_SQL = "SELECT NEXT VALUE FOR acteur_seq FROM SYSTEM_RANGE(1, $1)";
+
+    private static final String INSERT_FILM_SQL = "INSERT INTO film (id, version, titre, description) VALUES ($1, 0, $2, $3)";
+    private static final String INSERT_ACTEUR_SQL = "INSERT INTO acteur (id, nom, prenom) VALUES ($1, $2, $3)";
+    private static final String INSERT_ACTEUR_FILM_SQL = "INSERT INTO acteurs_films (film_id, acteur_id) VALUES ($1, $2)";
+
+    /**
+     * Same arities as {@link FilmRepository#ACTEUR_LOOKUP_ARITIES}, with R2DBC H2 placeholders ($1, $2...).
+     */
+    private static final String[] ACTEUR_LOOKUP_SQL = Arrays.stream(FilmRepository.ACTEUR_LOOKUP_ARITIES)
+            .mapToObj(arity -> {
+                StringJoiner tuples = new StringJoiner(",");
+                for (int i = 0; i < arity; i++) tuples.add(String.format("($%d,$%d)", i * 2 + 1, i * 2 + 2));
+                return "SELECT id, nom, prenom FROM acteur WHERE (nom, prenom) IN (" + tuples + ")";
+            })
+            .toArray(String[]::new);
+
+    private final DatabaseClient client;
+    private final TransactionalOperator transactionalOperator;
+    private final ActeurIdCache acteurIdCache;
+    private final ActeurSearchIndex acteurSearchIndex;
+    private final FilmSearchIndex filmSearchIndex;
+
+    public ReactiveFilmRepository(ConnectionFactory connectionFactory, ReactiveTransactionManager transactionManager, ActeurIdCache acteurIdCache, ActeurSearchIndex acteurSearchIndex, FilmSearchIndex filmSearchIndex) {
+        this.client = DatabaseClient.create(connectionFactory);
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.acteurIdCache = acteurIdCache;
+        this.acteurSearchIndex = acteurSearchIndex;
+        this.filmSearchIndex = filmSearchIndex;
+    }
+
+    /**
+     * Film with its acteurs, in one query.
+     *
+     * @param id Film id, cannot be null
+     */
+    public Mono<Film> getById(long id) {
+        return client.sql(FIND_BY_ID_SQL)
+                .bind(0, id)
+                .map((row, metadata) -> {
+                    Film film = new Film();
+                    film.setId(row.get("id", Long.class));
+                    film.setVersion(row.get("version", Long.class));
+                    film.setTitre(row.get("titre", String.class));
+                    film.setDescription(row.get("description", String.class));
+                    film.setActeurs(new ArrayList<>());
+
+                    Long acteurId = row.get("acteur_id", Long.class);
+                    if (acteurId != null) { // LEFT JOIN: film without acteur
+                        Acteur acteur = new Acteur();
+                        acteur.setId(acteurId);
+                        acteur.setNom(row.get("nom", String.class));
+                        acteur.setPrenom(row.get("prenom", String.class));
+                        film.getActeurs().add(acteur);
+                    }
+                    return film;
+                })
+                .all()
+                // one row per acteur: the first row's film with the acteurs of all rows
+                .reduce((film, row) -> {
+                    film.getActeurs().addAll(row.getActeurs());
+                    return film;
+                })
+                .switchIfEmpty(Mono.error(() ->
+                        new EntityNotFoundException(
+                                "film", // entity name
+                                Collections.singletonMap("id", id) // criteria
+                        )
+                ));
+    }
+
+    /**
+     * Save a new Film, in a single R2DBC transaction.
+     *
+     * @see FilmRepository#save
+     */
+    public Mono<Film> save(Film film) {
+        return Mono.defer(() -> {
+            // acteurs sans id, the first one of each nom & prenom: see FilmRepository#resolveActeurs
+            Map<NomPrenom, Acteur> nomPrenomToActeur = new HashMap<>();
+            if (film.getActeurs() != null) {
+                for (ListIterator<Acteur> it = film.getActeurs().listIterator(); it.hasNext(); ) {
+                    Acteur acteur = it.next();
+                    if (acteur.getId() != null) continue;
+                    if (acteur.getNom() == null) continue; // invalid TODO: is acteur's nom required ?
+                    if (acteur.getPrenom() == null) continue; // invalid TODO: is acteur's prenom required ?
+
+                    Acteur first = nomPrenomToActeur.putIfAbsent(new NomPrenom(acteur), acteur);
+                    if (first != null) it.set(first);
+                }
+            }
+
+            // first from cache, steady state: all acteurs are known
+            List<NomPrenom> hits = new ArrayList<>();
+            List<NomPrenom> misses = new ArrayList<>();
+            for (Map.Entry<NomPrenom, Acteur> e : nomPrenomToActeur.entrySet()) {
+                Long id = acteurIdCache.get(e.getKey());
+                if (id != null) {
+                    e.getValue().setId(id);
+                    hits.add(e.getKey());
+                } else {
+                    misses.add(e.getKey());
+                }
+            }
+
+            List<Acteur> newActeurs = new ArrayList<>();
+            return findActeursByNomPrenom(misses, nomPrenomToActeur)
+                    .then(Mono.defer(() -> insertNewActeurs(film, newActeurs)))
+                    .then(Mono.defer(() -> insertFilm(film)))
+                    .as(transactionalOperator::transactional)
+                    // rolled back: cached ids may be of deleted acteurs, see ActeurIdCache
+                    .doOnError(e -> acteurIdCache.invalidateAll(hits))
+                    // committed: see ActeurIdCache, only committed acteurs are cached
+                    .then(Mono.fromCallable(() -> {
+                        acteurIdCache.putAll(nomPrenomToActeur.values());
+                        acteurSearchIndex.addAll(newActeurs);
+                        filmSearchIndex.addAll(Collections.singletonList(film));
+                        return film;
+                    }));
+        });
+    }
+
+    /**
+     * Set the ids of the acteurs found by nom & prenom, by chunks of tuples padded to an arity.
+     *
+     * @see FilmRepository#findActeursByNomPrenom
+     */
+    private Mono<Void> findActeursByNomPrenom(List<NomPrenom> nomPrenoms, Map<NomPrenom, Acteur> nomPrenomToActeur) {
+        int[] arities = FilmRepository.ACTEUR_LOOKUP_ARITIES;
+        int maxArity = arities[arities.length - 1];
+
+        List<List<NomPrenom>> chunks = new ArrayList<>();
+        for (int from = 0; from < nomPrenoms.size(); from += maxArity) {
+            chunks.add(nomPrenoms.subList(from, Math.min(from + maxArity, nomPrenoms.size())));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> {
+                    int arityIdx = 0;
+                    while (arities[arityIdx] < chunk.size()) arityIdx++;
+
+                    DatabaseClient.GenericExecuteSpec spec = client.sql(ACTEUR_LOOKUP_SQL[arityIdx]);
+                    for (int i = 0; i < arities[arityIdx]; i++) {
+                        // padding with the last tuple, duplicates in IN do not change the result
+                        NomPrenom np = chunk.get(Math.min(i, chunk.size() - 1));
+                        spec = spec.bind(i * 2, np.getNom()).bind(i * 2 + 1, np.getPrenom());
+                    }
+                    return spec.map((row, metadata) -> {
+                        nomPrenomToActeur.get(
+                                new NomPrenom(row.get("nom", String.class), row.get("prenom", String.class))
+                        ).setId(row.get("id", Long.class));
+                        return Boolean.TRUE;
+                    }).all();
+                })
+                .then();
+    }
+
+    /**
+     * Insert the acteurs still without id, what the cascade PERSIST of Film#acteurs does.
+     *
+     * @param newActeurs the inserted acteurs are added to it
+     */
+    private Mono<Void> insertNewActeurs(Film film, List<Acteur> newActeurs) {
+        if (film.getActeurs() == null) return Mono.empty();
+
+        // deduplicated, an acteur may still appear twice
+        Set<Acteur> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Acteur acteur : film.getActeurs()) {
+            if (acteur.getId() == null && unique.add(acteur)) newActeurs.add(acteur);
+        }
+        if (newActeurs.isEmpty()) return Mono.empty();
+
+        return client.sql(NEXT_ACTEUR_IDS_SQL)
+                .bind(0, newActeurs.size())
+                .map((row, metadata) -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .flatMap(ids -> {
+                    List<Object[]> rows = new ArrayList<>(newActeurs.size());
+                    for (int i = 0; i < newActeurs.size(); i++) {
+                        Acteur acteur = newActeurs.get(i);
+                        acteur.setId(ids.get(i));
+                        rows.add(new Object[]{acteur.getId(), acteur.getNom(), acteur.getPrenom()});
+                    }
+                    return insert(INSERT_ACTEUR_SQL, rows);
+                });
+    }
+
+    private Mono<Void> insertFilm(Film film) {
+        return client.sql(NEXT_FILM_ID_SQL)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    film.setId(id);
+                    film.setVersion(0L); // Hibernate's initial version
+
+                    DatabaseClient.GenericExecuteSpec spec = client.sql(INSERT_FILM_SQL).bind(0, id);
+                    spec = film.getTitre() == null ? spec.bindNull(1, String.class) : spec.bind(1, film.getTitre());
+                    spec = film.getDescription() == null ? spec.bindNull(2, String.class) : spec.bind(2, film.getDescription());
+                    return spec.then();
+                })
+                .then(Mono.defer(() -> {
+                    if (film.getActeurs() == null) return Mono.empty();
+
+                    List<Object[]> rows = new ArrayList<>(film.getActeurs().size());
+                    for (Acteur acteur : film.getActeurs()) {
+                        rows.add(new Object[]{film.getId(), acteur.getId()});
+                    }
+                    return insert(INSERT_ACTEUR_FILM_SQL, rows);
+                }));
+    }
+
+    /**
+     * Batch insert: one statement, one set of bindings per row.
+     *
+     * @param rows values, null values are strings (nom, prenom)
+     */
+    private Mono<Void> insert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return Mono.empty();
+
+        // the connection of the current reactive transaction, exceptions translated to DataAccessException
+        return client.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(sql);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) statement.add(); // previous bindings done
+                Object[] row = rows.get(i);
+                for (int j = 0; j < row.length; j++) {
+                    if (row[j] == null) statement.bindNull(j, String.class);
+                    else statement.bind(j, row[j]);
+                }
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).then();
+    }
+}
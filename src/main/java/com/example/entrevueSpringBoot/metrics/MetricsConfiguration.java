@@ -0,0 +1,40 @@
+package com.example.entrevueSpringBoot.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wiring of the hot-path instrumentation into Hibernate and Spring MVC.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfiguration implements WebMvcConfigurer {
+
+    private final SqlStatementsPerRequestInterceptor sqlStatementsPerRequestInterceptor;
+
+    /**
+     * Hibernate instantiates a statement inspector given by class name, the bean instance is given instead.
+     *
+     * static: needed by the EntityManagerFactory, without instantiating this configuration and its dependencies.
+     */
+    @Bean
+    public static HibernatePropertiesCustomizer sqlStatementInspectorCustomizer(SqlStatementInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementsPerRequestInterceptor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(sqlStatementsPerRequestInterceptor);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.entrevueSpringBoot.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the number of Hibernate SQL statements per request, metric "http.server.requests.sql.statements"
+ * tagged by uri pattern like "http.server.requests".
+ *
+ * Statements are counted per thread: those of a Callable (e.g. the handoff of app.execution.mode=async) are counted
+ * on its executor thread and added to the request's count.
+ *
+ * @see SqlStatementInspector
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementsPerRequestInterceptor implements HandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final String ASYNC_COUNT = SqlStatementsPerRequestInterceptor.class.getName() + ".ASYNC_COUNT";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * By uri pattern: registered once, not looked up in the MeterRegistry on every request.
+     */
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementInspector.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        Object asyncCount = request.getAttribute(ASYNC_COUNT);
+        int count = SqlStatementInspector.count() + (asyncCount != null ? (int) asyncCount : 0);
+        summaries.computeIfAbsent(uri, this::summary).record(count);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        SqlStatementInspector.reset(); // executor thread
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        request.setAttribute(ASYNC_COUNT, SqlStatementInspector.count(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private DistributionSummary summary(String uri) {
+        return DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.entrevueSpringBoot.snapshot;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.example.entrevueSpringBoot.acteur.ActeurIdCache;
+import com.example.entrevueSpringBoot.acteur.ActeurSearchIndex;
+import com.example.entrevueSpringBoot.film.Film;
+import com.example.entrevueSpringBoot.film.FilmResponseCache;
+import com.example.entrevueSpringBoot.film.FilmSearchIndex;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot of the catalogue (tables acteur, film & acteurs_films) to a compact binary file, and restore from it.
+ *
+ * Restoring is plain JDBC batch inserts, not the JPA path of FilmRepository#save: no acteurs lookup, no persistence
+ * context, a million films in seconds.
+ *
+ * File format, big-endian:
+ * <pre>
+ * header  (not compressed): int magic "ECAT", int format version, byte flags (1: body is gzipped)
+ * body    (optionally gzipped): acteur rows, film rows, acteurs_films rows
+ *         each row prefixed by byte 1, each table terminated by byte 0
+ * acteur:        long id, string nom, string prenom
+ * film:          long id, long version, string titre, string description
+ * acteurs_films: long film_id, long acteur_id
+ * string: int length of the UTF-8 bytes (-1 for null), UTF-8 bytes
+ * </pre>
+ *
+ * Restoring needs an empty catalogue, on a fresh instance: ids are kept as is and Hibernate must not have
+ * allocated ids yet (pooled optimizer: ids of a block fetched before the restore would collide with restored ids),
+ * sequences are restarted after the restored ids.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogueSnapshot {
+
+    private static final int MAGIC = 0x45434154; // "ECAT"
+    private static final int FORMAT_VERSION = 1;
+    private static final byte FLAG_GZIP = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 1000;
+    private static final int ALLOCATION_SIZE = 50; // see Film#id & Acteur#id
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final FilmResponseCache filmResponseCache;
+    private final FilmSearchIndex filmSearchIndex;
+    private final ActeurSearchIndex acteurSearchIndex;
+    private final ActeurIdCache acteurIdCache;
+
+    @Value("${app.snapshot.path:./snapshot/catalogue.bin}")
+    private Path path;
+
+    @Value("${app.snapshot.compress:true}")
+    private boolean compress;
+
+    /**
+     * Counts of a snapshot or a restore.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final String path;
+        private final long acteurs;
+        private final long films;
+        private final long bytes;
+        private final long millis;
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    /**
+     * Write the snapshot to a temporary file, then move it over the previous snapshot: a failed snapshot never
+     * replaces a good one.
+     */
+    // a consistent view of the 3 tables
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Result snapshot() throws IOException {
+        long start = System.nanoTime();
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        long[] counts = new long[2]; // acteurs, films
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).put(compress ? FLAG_GZIP : 0);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header);
+
+            OutputStream body = Channels.newOutputStream(channel); // from the channel's position, after the header
+            GZIPOutputStream gzip = compress ? new GZIPOutputStream(body, BUFFER_SIZE) : null;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip != null ? gzip : body, BUFFER_SIZE))) {
+                counts[0] = writeTable(out, "SELECT id, nom, prenom FROM acteur ORDER BY id", rs -> {
+                    out.writeLong(rs.getLong(1));
+                    writeString(out, rs.getString(2));
+                    writeString(out, rs.getString(3));
+                });
+                counts[1] = writeTable(out, "SELECT id, version, titre, description FROM film ORDER BY id", rs -> {
+                    out.writeLong(rs.getLong(1));
+                    out.writeLong(rs.getLong(2));
+                    writeString(out, rs.getString(3));
+                    writeString(out, rs.getString(4));
+                });
+                writeTable(out, "SELECT film_id, acteur_id FROM acteurs_films", rs -> {
+                    out.writeLong(rs.getLong(1));
+                    out.writeLong(rs.getLong(2));
+                });
+                out.flush();
+                if (gzip != null) gzip.finish(); // last deflate block & trailer, written to the channel (unbuffered)
+                channel.force(true); // the whole file is on disk before it replaces the previous snapshot
+            }
+            // closing the stream closed the channel
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        Result result = new Result(path.toString(), counts[0], counts[1], Files.size(path), (System.nanoTime() - start) / 1_000_000);
+        log.info("Snapshot: {} acteurs, {} films to {} ({} bytes) in {} ms", result.acteurs, result.films, result.path, result.bytes, result.millis);
+        return result;
+    }
+
+    /**
+     * Restore the snapshot into an empty catalogue, then rebuild the in-memory indexes once committed.
+     *
+     * @throws IllegalStateException if the catalogue is not empty, or if Hibernate already allocated ids
+     */
+    @Transactional
+    public Result restore() throws IOException {
+        long start = System.nanoTime();
+        Long films = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM film", Long.class);
+        Long acteurs = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM acteur", Long.class);
+        if (films != 0 || acteurs != 0) throw new IllegalStateException("Catalogue not empty, restore refused");
+        if (idsAllocated(Film.class) || idsAllocated(Acteur.class)) {
+            throw new IllegalStateException("Ids already allocated by this instance, restore refused: restart it first");
+        }
+
+        long[] counts = new long[2]; // acteurs, films
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) throw new EOFException("Truncated snapshot header");
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) throw new IOException("Not a catalogue snapshot: " + path);
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) throw new IOException("Unsupported snapshot format version " + version);
+            boolean gzipped = (header.get() & FLAG_GZIP) != 0;
+
+            InputStream body = Channels.newInputStream(channel); // from the channel's position, after the header
+            if (gzipped) body = new GZIPInputStream(body, BUFFER_SIZE);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(body, BUFFER_SIZE));
+
+            counts[0] = readTable(in, "INSERT INTO acteur (id, nom, prenom) VALUES (?, ?, ?)",
+                    () -> new Object[]{in.readLong(), readString(in), readString(in)});
+            counts[1] = readTable(in, "INSERT INTO film (id, version, titre, description) VALUES (?, ?, ?, ?)",
+                    () -> new Object[]{in.readLong(), in.readLong(), readString(in), readString(in)});
+            readTable(in, "INSERT INTO acteurs_films (film_id, acteur_id) VALUES (?, ?)",
+                    () -> new Object[]{in.readLong(), in.readLong()});
+        }
+
+        // next ids after the restored ones: Hibernate's pooled optimizer uses (value - allocationSize, value]
+        restartSequence("film_seq", "film");
+        restartSequence("acteur_seq", "acteur");
+
+        // once committed: a rolled back restore leaves caches & indexes as they were
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // acteurs deleted before the restore may have been restored with other ids
+                acteurIdCache.invalidateAll();
+                filmResponseCache.invalidateAll();
+                filmSearchIndex.rebuild();
+                acteurSearchIndex.rebuild();
+            }
+        });
+
+        Result result = new Result(path.toString(), counts[0], counts[1], Files.size(path), (System.nanoTime() - start) / 1_000_000);
+        log.info("Restore: {} acteurs, {} films from {} in {} ms", result.acteurs, result.films, result.path, result.millis);
+        return result;
+    }
+
+    /**
+     * Whether Hibernate's pooled optimizer of the entity's id already fetched a block of ids from its sequence.
+     */
+    private boolean idsAllocated(Class<?> entity) {
+        IdentifierGenerator generator = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(entity).getIdentifierGenerator();
+        return generator instanceof SequenceStyleGenerator
+                && ((SequenceStyleGenerator) generator).getOptimizer().getLastSourceValue() != null;
+    }
+
+    private void restartSequence(String sequence, String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        jdbcTemplate.execute(String.format("ALTER SEQUENCE %s RESTART WITH %d", sequence, max + ALLOCATION_SIZE));
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        Object[] read() throws IOException;
+    }
+
+    private long writeTable(DataOutputStream out, String sql, RowWriter writer) throws IOException {
+        long[] count = new long[1];
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                try {
+                    out.writeByte(1);
+                    writer.write(rs);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.writeByte(0);
+        return count[0];
+    }
+
+    private long readTable(DataInputStream in, String sql, RowReader reader) throws IOException {
+        long count = 0;
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        while (in.readByte() == 1) {
+            batch.add(reader.read());
+            count++;
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(sql, batch);
+        return count;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.entrevueSpringBoot.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+/**
+ * Admin endpoints to snapshot the catalogue to app.snapshot.path and restore it, see {@link CatalogueSnapshot}.
+ */
+@RestController
+@RequiredArgsConstructor
+@Profile("!reactive") // blocking
+public class SnapshotController {
+
+    private final CatalogueSnapshot snapshot;
+
+    @PostMapping("/api/admin/snapshot")
+    public CatalogueSnapshot.Result snapshot() throws IOException {
+        return snapshot.snapshot();
+    }
+
+    /**
+     * 404 Not Found without snapshot, 409 Conflict if the catalogue is not empty.
+     */
+    @PostMapping("/api/admin/restore")
+    public CatalogueSnapshot.Result restore() throws IOException {
+        if (!snapshot.exists()) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No snapshot");
+
+        try {
+            return snapshot.restore();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+}
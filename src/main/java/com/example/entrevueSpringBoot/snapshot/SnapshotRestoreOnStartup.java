@@ -0,0 +1,42 @@
+package com.example.entrevueSpringBoot.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Restore of the catalogue snapshot at startup, app.snapshot.restore-on-startup.
+ *
+ * First application runner: before the warm-up (CatalogueWarmUp) and before the application is ready.
+ * Skipped without snapshot or if the catalogue is not empty (file profile).
+ */
+@Component
+@ConditionalOnProperty(name = "app.snapshot.restore-on-startup", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotRestoreOnStartup implements ApplicationRunner {
+
+    private final CatalogueSnapshot snapshot;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!snapshot.exists()) {
+            log.info("No catalogue snapshot to restore");
+            return;
+        }
+
+        try {
+            snapshot.restore();
+        } catch (IllegalStateException e) {
+            log.info("Catalogue snapshot not restored: {}", e.getMessage());
+        }
+    }
+}
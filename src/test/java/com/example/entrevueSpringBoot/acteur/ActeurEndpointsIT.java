@@ -0,0 +1,98 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import com.example.entrevueSpringBoot.IntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.transaction.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Black-box testing of {@link ActeurController} and {@link ActeurFilmsController} endpoints.
+ */
+@IntegrationTest // @SpringBootTest with common configuration
+@Transactional
+// rollback by default: inserts are not actually committed
+// TODO: is acteur's combination of nom & prenom unique ?
+public class ActeurEndpointsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @return the saved film, with ids
+     */
+    private JsonNode postFilm(String titre) throws Exception {
+        //language=json
+        String body = "{\"titre\":\"" + titre + "\",\"description\":null,\"acteurs\":[{\"nom\":\"Ford\",\"prenom\":\"Harrison\"}]}";
+        String saved = mockMvc.perform(
+                        post("/api/film").contentType("application/json").content(body)
+                )
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(saved);
+    }
+
+    @Test
+    public void getActeurFilms_200() throws Exception {
+        JsonNode empire = postFilm("Star Wars: The Empire Strikes Back");
+        JsonNode bladeRunner = postFilm("Blade Runner");
+        long acteurId = empire.get("acteurs").get(0).get("id").asLong(); // Ford Harrison
+
+        mockMvc.perform(
+                        get("/api/acteurs/{id}/films", acteurId)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(
+                        // language=json
+                        "[" +
+                                "{\"id\":" + empire.get("id") + ",\"titre\":\"Star Wars: The Empire Strikes Back\"}," +
+                                "{\"id\":" + bladeRunner.get("id") + ",\"titre\":\"Blade Runner\"}" +
+                                "]",
+                        true
+                ))
+                .andExpect(header().doesNotExist("Link"))
+        ;
+
+        mockMvc.perform(
+                        get("/api/acteurs/{id}/films", acteurId).param("limit", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(
+                        // language=json
+                        "[{\"id\":" + empire.get("id") + ",\"titre\":\"Star Wars: The Empire Strikes Back\"}]",
+                        true
+                ))
+                .andExpect(header().string("Link", containsString(
+                        "/api/acteurs/" + acteurId + "/films?after=" + empire.get("id") + "&limit=1>; rel=\"next\""
+                )))
+        ;
+
+        mockMvc.perform(
+                        get("/api/acteurs/{id}/films", acteurId).param("after", bladeRunner.get("id").asText())
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]", true))
+        ;
+    }
+
+    @Test
+    public void getActeurFilms_404() throws Exception {
+        mockMvc.perform(
+                        get("/api/acteurs/{id}/films", Long.MAX_VALUE)
+                )
+                .andExpect(status().isNotFound())
+        ;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.acteur;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ActeurIdCacheTest {
+
+    private final ActeurIdCache cache = new ActeurIdCache(10, new SimpleMeterRegistry());
+
+    @BeforeEach
+    public void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization(); // what a transaction manager does on begin
+    }
+
+    @AfterEach
+    public void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void putAllAfterCommit_commit() {
+        Acteur ford = acteur(null, "Ford", "Harrison"); // new acteur, id on persist
+        cache.putAllAfterCommit(Collections.singletonList(ford));
+        ford.setId(2L); // persist
+
+        assertNull(cache.get(new NomPrenom("Ford", "Harrison")), "cached before commit");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(2L, cache.get(new NomPrenom("Ford", "Harrison")));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void putAllAfterCommit_rollback() {
+        cache.putAllAfterCommit(Collections.singletonList(acteur(3L, "Hamill", "Mark")));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertNull(cache.get(new NomPrenom("Hamill", "Mark")));
+    }
+
+    @Test
+    public void invalidateAllAfterRollback_rollback() {
+        cache.putAll(Arrays.asList(acteur(2L, "Ford", "Harrison"), acteur(3L, "Hamill", "Mark")));
+        cache.invalidateAllAfterRollback(Collections.singletonList(new NomPrenom("Ford", "Harrison")));
+
+        assertEquals(2L, cache.get(new NomPrenom("Ford", "Harrison")), "evicted before rollback");
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertNull(cache.get(new NomPrenom("Ford", "Harrison")));
+        assertEquals(3L, cache.get(new NomPrenom("Hamill", "Mark")));
+    }
+
+    @Test
+    public void invalidateAllAfterRollback_commit() {
+        cache.putAll(Collections.singletonList(acteur(2L, "Ford", "Harrison")));
+        cache.invalidateAllAfterRollback(Collections.singletonList(new NomPrenom("Ford", "Harrison")));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(2L, cache.get(new NomPrenom("Ford", "Harrison")));
+    }
+
+    @Test
+    public void invalidateAll() {
+        cache.putAll(Arrays.asList(acteur(2L, "Ford", "Harrison"), acteur(3L, "Hamill", "Mark")));
+        cache.invalidateAll();
+
+        assertNull(cache.get(new NomPrenom("Ford", "Harrison")));
+        assertNull(cache.get(new NomPrenom("Hamill", "Mark")));
+    }
+
+    @Test
+    public void putAll() {
+        cache.putAll(Arrays.asList(acteur(2L, "Ford", "Harrison"), acteur(null, "Hamill", "Mark")));
+
+        assertEquals(2L, cache.get(new NomPrenom("Ford", "Harrison")));
+        assertNull(cache.get(new NomPrenom("Hamill", "Mark")), "not persisted");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ActeurLocksTest {
+
+    private final ActeurLocks locks = new ActeurLocks(16);
+
+    private static void complete() { // what a transaction manager does on commit or rollback
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void lockUntilCompletion() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockUntilCompletion(Arrays.asList(new NomPrenom("Ford", "Harrison"), new NomPrenom("Ford", "Harrison")));
+        assertEquals(1, locks.lockedStripes());
+
+        // another transaction on the same acteur waits for completion
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            locks.lockUntilCompletion(Collections.singletonList(new NomPrenom("Ford", "Harrison")));
+            locked.countDown();
+            complete();
+        });
+        other.start();
+        assertFalse(locked.await(100, TimeUnit.MILLISECONDS), "locked by the other transaction");
+
+        complete();
+        assertTrue(locked.await(1, TimeUnit.SECONDS), "unlocked on completion");
+        other.join();
+        assertEquals(0, locks.lockedStripes());
+    }
+
+    @Test
+    public void lockUntilCompletion_noTransaction() {
+        assertThrows(IllegalStateException.class, () ->
+                locks.lockUntilCompletion(Collections.singletonList(new NomPrenom("Hamill", "Mark")))
+        );
+        assertEquals(0, locks.lockedStripes());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.entrevueSpringBoot.acteur;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.acteur;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ActeurSearchIndexTest {
+
+    private final ActeurSearchIndex index = new ActeurSearchIndex(null); // not built from database
+
+    private List<Long> search(String prefix, int limit) {
+        return index.search(prefix, limit).stream().map(Acteur::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void normalize() {
+        assertEquals("penelope cruz", ActeurSearchIndex.normalize("  Pénélope  CRUZ "));
+    }
+
+    @Test
+    public void search() {
+        index.addAll(Arrays.asList(
+                acteur(1L, "Ford", "Harrison"),
+                acteur(2L, "Fisher", "Carrie"),
+                acteur(3L, "Cruz", "Pénélope"),
+                acteur(4L, "Fordham", "Harrison"),
+                acteur(null, "Hamill", "Mark") // not persisted
+        ));
+
+        assertEquals(Arrays.asList(1L, 4L), search("FORD", 10));
+        assertEquals(Arrays.asList(1L), search("ford", 1));
+        assertEquals(Arrays.asList(3L), search("penel", 10), "accents ignored");
+        assertEquals(Arrays.asList(1L, 4L), search("harrison", 10), "an acteur matching several keys once");
+        assertEquals(Arrays.asList(1L), search("harrison ford", 10));
+        assertEquals(Arrays.asList(2L), search("fisher c", 10));
+        assertTrue(search("hamill", 10).isEmpty());
+        assertTrue(search(" ", 10).isEmpty());
+    }
+}
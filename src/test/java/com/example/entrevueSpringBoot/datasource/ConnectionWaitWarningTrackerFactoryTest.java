@@ -0,0 +1,47 @@
+package com.example.entrevueSpringBoot.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ConnectionWaitWarningTrackerFactoryTest {
+
+    private final IMetricsTracker delegate = mock(IMetricsTracker.class);
+    private final IMetricsTracker tracker = new ConnectionWaitWarningTrackerFactory((poolName, poolStats) -> delegate, Duration.ofMillis(50))
+            .create("test", mock(PoolStats.class));
+
+    @Test
+    public void recordConnectionAcquiredNanos_delegated() {
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(1)); // below threshold
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(100)); // above threshold, warning logged
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(200)); // above threshold, warning suppressed
+
+        verify(delegate).recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        verify(delegate).recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        verify(delegate).recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void recordConnectionTimeout_delegated() {
+        tracker.recordConnectionTimeout();
+
+        verify(delegate).recordConnectionTimeout();
+    }
+
+    @Test
+    public void other_delegated() {
+        tracker.recordConnectionCreatedMillis(3);
+        tracker.recordConnectionUsageMillis(4);
+        tracker.close();
+
+        verify(delegate).recordConnectionCreatedMillis(3);
+        verify(delegate).recordConnectionUsageMillis(4);
+        verify(delegate).close();
+    }
+}
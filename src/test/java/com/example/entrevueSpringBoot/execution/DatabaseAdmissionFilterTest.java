@@ -0,0 +1,142 @@
+package com.example.entrevueSpringBoot.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DatabaseAdmissionFilterTest {
+
+    private final DatabaseAdmissionFilter filter = new DatabaseAdmissionFilter(1, request -> !request.getRequestURI().equals("/api/films/search"));
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    /**
+     * ASYNC dispatch by the container: a new dispatch, async processing no longer started.
+     */
+    private void dispatch(MockHttpServletRequest request, MockHttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, chain);
+    }
+
+    @Test
+    public void admitted_waiting_handedOver() throws Exception {
+        MockHttpServletRequest waiting = request("/api/film/2");
+        MockHttpServletResponse waitingResponse = new MockHttpServletResponse();
+        AtomicInteger handled = new AtomicInteger();
+
+        filter.doFilter(request("/api/film/1"), new MockHttpServletResponse(), (request, response) -> {
+            assertTrue(DatabaseAdmissionFilter.isAdmitted(request));
+
+            // meanwhile, no permit left
+            filter.doFilter(waiting, waitingResponse, (r, s) -> handled.incrementAndGet());
+            assertTrue(waiting.isAsyncStarted(), "waiting without thread");
+            assertEquals(1, filter.getWaiting());
+        });
+
+        // permit handed over on completion of the first request
+        assertEquals(0, filter.getWaiting());
+        assertEquals("/api/film/2", ((MockAsyncContext) waiting.getAsyncContext()).getDispatchedPath());
+        assertEquals(0, handled.get(), "handled by the ASYNC dispatch");
+        assertEquals(0, filter.getAvailablePermits());
+
+        dispatch(waiting, waitingResponse, (request, response) -> {
+            assertTrue(DatabaseAdmissionFilter.isAdmitted(request));
+            handled.incrementAndGet();
+        });
+        assertEquals(1, handled.get());
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void waiting_timeout_503() throws Exception {
+        MockHttpServletRequest waiting = request("/api/film/2");
+        MockHttpServletResponse waitingResponse = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/film/1"), new MockHttpServletResponse(), (request, response) -> {
+            filter.doFilter(waiting, waitingResponse, (r, s) -> {
+                throw new AssertionError("not admitted");
+            });
+
+            MockAsyncContext async = (MockAsyncContext) waiting.getAsyncContext();
+            for (AsyncListener listener : async.getListeners()) listener.onTimeout(new AsyncEvent(async));
+
+            assertEquals(503, waitingResponse.getStatus());
+            assertEquals(0, filter.getWaiting());
+        });
+
+        assertNull(((MockAsyncContext) waiting.getAsyncContext()).getDispatchedPath(), "timed out: not dispatched");
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void handoff_permitHeldUntilAsyncDispatch() throws Exception {
+        MockHttpServletRequest handedOff = request("/api/film/1");
+        MockHttpServletResponse handedOffResponse = new MockHttpServletResponse();
+
+        // the controller method is handed off to an executor: async processing started by Spring MVC
+        filter.doFilter(handedOff, handedOffResponse, (request, response) -> request.startAsync(request, response));
+        assertEquals(0, filter.getAvailablePermits(), "JDBC calls still running on the executor");
+
+        MockHttpServletRequest waiting = request("/api/film/2");
+        filter.doFilter(waiting, new MockHttpServletResponse(), (request, response) -> {
+            throw new AssertionError("not admitted");
+        });
+        assertEquals(1, filter.getWaiting());
+
+        // result written by the ASYNC dispatch: permit handed over
+        MockAsyncContext async = (MockAsyncContext) handedOff.getAsyncContext();
+        dispatch(handedOff, handedOffResponse, (request, response) -> assertTrue(DatabaseAdmissionFilter.isAdmitted(request)));
+        assertEquals(0, filter.getWaiting());
+        assertNotNull(((MockAsyncContext) waiting.getAsyncContext()).getDispatchedPath());
+
+        // completion of the handed off request: released once only
+        async.complete();
+        assertEquals(0, filter.getAvailablePermits(), "held by the dispatched waiting request");
+    }
+
+    @Test
+    public void handoff_timeout_permitReleased() throws Exception {
+        MockHttpServletRequest handedOff = request("/api/film/1");
+        filter.doFilter(handedOff, new MockHttpServletResponse(), (request, response) -> request.startAsync(request, response));
+
+        MockAsyncContext async = (MockAsyncContext) handedOff.getAsyncContext();
+        for (AsyncListener listener : async.getListeners()) listener.onTimeout(new AsyncEvent(async));
+
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void notDatabaseBound_notCounted() throws Exception {
+        filter.doFilter(request("/api/film/1"), new MockHttpServletResponse(), (request, response) -> {
+            MockHttpServletRequest search = request("/api/films/search");
+            AtomicInteger handled = new AtomicInteger();
+            filter.doFilter(search, new MockHttpServletResponse(), (r, s) -> {
+                assertFalse(DatabaseAdmissionFilter.isAdmitted(r));
+                handled.incrementAndGet();
+            });
+
+            assertEquals(1, handled.get(), "handled without permit");
+            assertFalse(search.isAsyncStarted());
+        });
+    }
+}
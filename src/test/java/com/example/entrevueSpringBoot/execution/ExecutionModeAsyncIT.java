@@ -0,0 +1,87 @@
+package com.example.entrevueSpringBoot.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * app.execution.mode=async: database-bound requests are handed off to {@link DatabaseHandoffHandlerAdapter}'s
+ * executor and answered on the ASYNC dispatch, with the same statuses, headers and bodies as in the default mode.
+ *
+ * Not an @IntegrationTest: another execution mode, on a database of its own.
+ */
+@SpringBootTest(properties = {"app.execution.mode=async", "spring.datasource.url=jdbc:h2:mem:async-it"})
+@AutoConfigureMockMvc
+public class ExecutionModeAsyncIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Handed off, then answered by the ASYNC dispatch.
+     */
+    private ResultActions performHandedOff(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult handedOff = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(handedOff));
+    }
+
+    @Test
+    public void postFilm_getFilm() throws Exception {
+        //language=json
+        String body = "{\"titre\":\"Blade Runner\",\"description\":null,\"acteurs\":[{\"nom\":\"Ford\",\"prenom\":\"Harrison\"}]}";
+        String saved = performHandedOff(post("/api/film").contentType("application/json").content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.titre").value("Blade Runner"))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode film = objectMapper.readTree(saved);
+        long id = film.get("id").asLong();
+
+        String eTag = performHandedOff(get("/api/film/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().json(saved))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        performHandedOff(get("/api/film/{id}", id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag));
+
+        long acteurId = film.get("acteurs").get(0).get("id").asLong();
+        performHandedOff(get("/api/acteurs/{id}/films", acteurId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id));
+    }
+
+    @Test
+    public void getFilm_404() throws Exception {
+        performHandedOff(get("/api/film/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound()); // thrown on the executor, handled by the controller advice
+    }
+
+    @Test
+    public void searchFilms_notHandedOff() throws Exception {
+        mockMvc.perform(get("/api/films/search").param("q", "runner"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+    }
+}
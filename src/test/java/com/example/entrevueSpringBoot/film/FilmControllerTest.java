@@ -0,0 +1,27 @@
+package com.example.entrevueSpringBoot.film;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilmControllerTest {
+
+    @Test
+    public void acceptsGzip() {
+        assertTrue(FilmController.acceptsGzip("gzip"));
+        assertTrue(FilmController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(FilmController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(FilmController.acceptsGzip("*"));
+    }
+
+    @Test
+    public void acceptsGzip_not() {
+        assertFalse(FilmController.acceptsGzip(null));
+        assertFalse(FilmController.acceptsGzip(""));
+        assertFalse(FilmController.acceptsGzip("identity"));
+        assertFalse(FilmController.acceptsGzip("gzip;q=0"));
+        assertFalse(FilmController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(FilmController.acceptsGzip("br, *;q=0"));
+    }
+}
@@ -3,23 +3,37 @@ package com.example.entrevueSpringBoot.film;
 import com.example.entrevueSpringBoot.IntegrationTest;
 import com.example.entrevueSpringBoot.acteur.Acteur;
 import com.example.entrevueSpringBoot.testhelper.InsertBeforeCommand;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.util.StreamUtils;
 
 import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static com.example.entrevueSpringBoot.testhelper.InsertBeforeCommand.insert;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -144,6 +158,33 @@ public class FilmEndpointsIT {
         ;
     }
 
+    private static Object[][] binaryFormats() {
+        return new Object[][]{
+                // contentType, mapper of the format
+                new Object[]{"application/cbor", new CBORMapper()},
+                new Object[]{"application/x-jackson-smile", new SmileMapper()},
+        };
+    }
+
+    /**
+     * Same film as {@link #postFilm_201}, posted and answered in a binary format.
+     */
+    @ParameterizedTest
+    @MethodSource("binaryFormats")
+    public void postFilm_binary_201(String contentType, ObjectMapper mapper) throws Exception {
+        byte[] body = mapper.writeValueAsBytes(new ObjectMapper().readTree(BODY));
+
+        MockHttpServletResponse response = mockMvc.perform(
+                        post("/api/film").contentType(contentType).accept(contentType).content(body)
+                )
+                .andExpect(status().isCreated()) // 201 Created
+                .andExpect(content().contentType(contentType))
+                .andReturn().getResponse();
+
+        JsonNode expected = new ObjectMapper().readTree(withIds(findIds()));
+        assertEquals(expected, mapper.readTree(response.getContentAsByteArray()));
+    }
+
     /**
      * POST same film twice with exact same request body should respond 409 Conflict.
      * <p>
@@ -255,6 +296,39 @@ public class FilmEndpointsIT {
         result.andExpect(content().string(inserts.on(newFilm)));
     }
 
+    /**
+     * POST films in bulk, as a JSON array and as NDJSON, sharing new acteurs.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource
+    public void postFilms_bulk_201(String contentType, String body) throws Exception {
+        mockMvc.perform(
+                        post("/api/films/bulk").contentType(contentType).content(body)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"created\":2}", true))
+        ;
+
+        long[] ids = findIds(); // 3: film & Ford Harrison & Hamill Mark
+        Film jedi = filmTestRepository.getByTitre("Star Wars: Return of the Jedi");
+        assertEquals(2, jedi.getActeurs().size());
+        assertEquals(ids[1], jedi.getActeurs().get(0).getId()); // Ford Harrison inserted once
+        assertEquals(ids[2], jedi.getActeurs().get(1).getId()); // Hamill Mark inserted once
+    }
+
+    static Object[][] postFilms_bulk_201() {
+        // TODO: is film's titre unique ?
+        String jedi = BODY.replace(
+                "\"titre\":\"Star Wars: The Empire Strikes Back\"",
+                "\"titre\":\"Star Wars: Return of the Jedi\""
+        );
+        return new Object[][]{
+                // contentType, body
+                new String[]{"application/json", "[" + BODY + "," + jedi + "]"},
+                new String[]{"application/x-ndjson", BODY + "\n" + jedi + "\n"},
+        };
+    }
+
     @Test
     public void getFilm_200() throws Exception {
         doPostFilm();
@@ -262,6 +336,145 @@ public class FilmEndpointsIT {
         expectDefaultFilm(ids);
     }
 
+    @Test
+    public void getFilm_ifNoneMatch_304() throws Exception {
+        doPostFilm();
+        long[] ids = findIds();
+
+        String eTag = mockMvc.perform(
+                        get("/api/film/{id}", ids[0])
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(
+                        get("/api/film/{id}", ids[0]).header("If-None-Match", eTag)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""))
+        ;
+    }
+
+    @ParameterizedTest
+    @MethodSource("binaryFormats")
+    public void getFilm_binary_200(String contentType, ObjectMapper mapper) throws Exception {
+        doPostFilm();
+        long[] ids = findIds();
+
+        MockHttpServletResponse response = mockMvc.perform(
+                        get("/api/film/{id}", ids[0]).accept(contentType)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andExpect(header().string("ETag", endsWith(contentType.endsWith("cbor") ? "-cbor\"" : "-smile\"")))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn().getResponse();
+
+        // same film as JSON, only encoded differently
+        JsonNode expected = new ObjectMapper().readTree(withIds(ids));
+        JsonNode actual = mapper.readTree(response.getContentAsByteArray());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void getFilm_gzip_200_304() throws Exception {
+        // long description: more than app.film-response-cache.gzip-min-size
+        String description = String.join(" ", Collections.nCopies(100, "Darth Vader is adamant about turning Luke Skywalker to the dark side."));
+        doPostFilm(BODY.replace("Darth Vader is adamant about turning Luke Skywalker to the dark side.", description));
+        long[] ids = findIds();
+
+        MockHttpServletResponse identity = mockMvc.perform(
+                        get("/api/film/{id}", ids[0])
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse();
+
+        MockHttpServletResponse gzip = mockMvc.perform(
+                        get("/api/film/{id}", ids[0]).header("Accept-Encoding", "gzip, deflate, br")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", endsWith("-gzip\"")))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn().getResponse();
+
+        assertTrue(gzip.getContentAsByteArray().length < identity.getContentAsByteArray().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertArrayEquals(identity.getContentAsByteArray(), StreamUtils.copyToByteArray(in));
+        }
+
+        String eTag = gzip.getHeader("ETag");
+        mockMvc.perform(
+                        get("/api/film/{id}", ids[0]).header("Accept-Encoding", "gzip").header("If-None-Match", eTag)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+        ;
+
+        // both representations stored by the client, each one validated
+        mockMvc.perform(
+                        get("/api/film/{id}", ids[0]).header("If-None-Match", "\"0-0\", " + identity.getHeader("ETag"))
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", identity.getHeader("ETag")))
+        ;
+        mockMvc.perform(
+                        get("/api/film/{id}", ids[0]).header("If-None-Match", identity.getHeader("ETag") + ", " + eTag)
+                )
+                .andExpect(status().isNotModified())
+        ;
+    }
+
+    @Test
+    public void getFilms_200() throws Exception {
+        doPostFilm();
+        long[] ids = findIds();
+
+        mockMvc.perform(
+                        get("/api/films").param("after", String.valueOf(ids[0] - 1)).param("limit", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("[" + withIds(ids) + "]", true))
+                .andExpect(header().string("Link", org.hamcrest.Matchers.containsString("after=" + ids[0])))
+        ;
+
+        mockMvc.perform(
+                        get("/api/films").param("after", String.valueOf(ids[0] - 1)).param("fields", "summary")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(
+                        // language=json
+                        "[{\"id\":" + ids[0] + ",\"titre\":\"Star Wars: The Empire Strikes Back\"}]",
+                        true
+                ))
+                .andExpect(header().doesNotExist("Link"))
+        ;
+    }
+
+    @Test
+    public void getFilms_ids_200() throws Exception {
+        doPostFilm();
+        long[] ids = findIds();
+
+        mockMvc.perform(
+                        get("/api/films").param("ids", ids[0] + "," + Long.MAX_VALUE + "," + ids[0])
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"films\":[" + withIds(ids) + "],\"missing\":[" + Long.MAX_VALUE + "]}", true))
+        ;
+
+        mockMvc.perform(
+                        post("/api/films/batch").contentType("application/json").content("[" + Long.MAX_VALUE + "," + ids[0] + "]")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"films\":[" + withIds(ids) + "],\"missing\":[" + Long.MAX_VALUE + "]}", true))
+        ;
+    }
+
     /**
      * @see #BODY the default film
      */
@@ -0,0 +1,84 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.acteur;
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.film;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * NDJSON export of the whole catalogue, GET /api/films/export.
+ *
+ * Not an @IntegrationTest: films are committed (the export reads them on a connection of its own, asynchronously),
+ * on a database of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export-it")
+@AutoConfigureMockMvc
+public class FilmExportIT {
+
+    /**
+     * More films than FilmNdjsonExporter#FETCH_SIZE: several fetches from the lazy cursor.
+     */
+    private static final int FILMS = 1500;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void exportFilms_200() throws Exception {
+        List<Film> films = new ArrayList<>(FILMS);
+        for (int i = 0; i < FILMS; i++) {
+            Film film = film("Film " + i);
+            film.setDescription(i % 2 == 0 ? null : "Description " + i);
+            film.setActeurs(i == 0
+                    ? Collections.emptyList() // film without acteur: LEFT JOIN
+                    : Arrays.asList(acteur("Ford", "Harrison"), acteur("Acteur" + i, "Prenom")));
+            films.add(film);
+        }
+        filmRepository.saveAll(films);
+
+        MvcResult async = mockMvc.perform(
+                        get("/api/films/export")
+                )
+                .andExpect(request().asyncStarted()) // streamed after the controller returned
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(FILMS, lines.length); // one line per film
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Film 0", first.get("titre").asText());
+        assertEquals(0, first.get("acteurs").size());
+
+        JsonNode last = objectMapper.readTree(lines[FILMS - 1]);
+        assertEquals("Film " + (FILMS - 1), last.get("titre").asText());
+        assertEquals("Description " + (FILMS - 1), last.get("description").asText());
+        assertEquals(2, last.get("acteurs").size());
+    }
+}
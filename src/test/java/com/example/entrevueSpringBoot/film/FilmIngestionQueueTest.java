@@ -0,0 +1,94 @@
+package com.example.entrevueSpringBoot.film;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.film;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FilmIngestionQueueTest {
+
+    private final FilmRepository repository = mock(FilmRepository.class);
+
+    private FilmIngestionQueue queue(int capacity) {
+        return new FilmIngestionQueue(repository, capacity, 500, Duration.ofMinutes(1), 1000, new SimpleMeterRegistry());
+    }
+
+    private static Film saved(Film film, long id) {
+        Film saved = new Film();
+        saved.setId(id);
+        saved.setTitre(film.getTitre());
+        return saved;
+    }
+
+    private FilmIngestionStatus.State state(FilmIngestionQueue queue, FilmIngestionStatus status) {
+        return queue.getStatus(status.getTicket()).orElseThrow(AssertionError::new).getState();
+    }
+
+    @Test
+    public void enqueue_full() {
+        FilmIngestionQueue queue = queue(1);
+
+        assertTrue(queue.enqueue(film("Star Wars")).isPresent());
+        assertFalse(queue.enqueue(film("Blade Runner")).isPresent(), "queue full");
+    }
+
+    @Test
+    public void save_conflicts() throws InterruptedException {
+        when(repository.findTitresByTitreIn(anyCollection())).thenReturn(Collections.singletonList("Star Wars"));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Film> films = invocation.getArgument(0);
+            List<Film> saved = new ArrayList<>();
+            for (Film film : films) saved.add(saved(film, 100 + saved.size()));
+            return saved;
+        });
+
+        FilmIngestionQueue queue = queue(10);
+        FilmIngestionStatus existing = queue.enqueue(film("Star Wars")).orElseThrow(AssertionError::new);
+        FilmIngestionStatus created = queue.enqueue(film("Blade Runner")).orElseThrow(AssertionError::new);
+        FilmIngestionStatus twice = queue.enqueue(film("Blade Runner")).orElseThrow(AssertionError::new);
+        assertEquals(FilmIngestionStatus.State.PENDING, state(queue, created));
+
+        queue.start();
+        queue.stop(); // drains the queue
+
+        assertEquals(FilmIngestionStatus.State.CONFLICT, state(queue, existing));
+        assertEquals(FilmIngestionStatus.State.CREATED, state(queue, created));
+        assertEquals(100L, queue.getStatus(created.getTicket()).orElseThrow(AssertionError::new).getFilmId());
+        assertEquals(FilmIngestionStatus.State.CONFLICT, state(queue, twice));
+    }
+
+    @Test
+    public void save_batchConflict_oneByOne() throws InterruptedException {
+        when(repository.findTitresByTitreIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(repository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("concurrent insert"));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            Film film = invocation.getArgument(0);
+            if ("Blade Runner".equals(film.getTitre())) throw new DataIntegrityViolationException("concurrent insert");
+            return saved(film, 200);
+        });
+
+        FilmIngestionQueue queue = queue(10);
+        FilmIngestionStatus created = queue.enqueue(film("Star Wars")).orElseThrow(AssertionError::new);
+        FilmIngestionStatus conflict = queue.enqueue(film("Blade Runner")).orElseThrow(AssertionError::new);
+
+        queue.start();
+        queue.stop();
+
+        assertEquals(FilmIngestionStatus.State.CREATED, state(queue, created));
+        assertEquals(FilmIngestionStatus.State.CONFLICT, state(queue, conflict));
+    }
+}
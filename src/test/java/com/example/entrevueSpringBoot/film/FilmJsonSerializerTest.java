@@ -0,0 +1,38 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.example.entrevueSpringBoot.acteur.ActeurJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.acteur;
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.film;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FilmJsonSerializerTest {
+
+    private final ObjectMapper defaultMapper = new ObjectMapper();
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(Film.class, new FilmJsonSerializer())
+            .addSerializer(Acteur.class, new ActeurJsonSerializer())
+    );
+
+    @Test
+    public void serialize_sameAsDefault() throws Exception {
+        Film film = film(1, "Star Wars: L'Empire contre-attaque \"V\"", null);
+        film.setVersion(3L); // not serialized
+        film.setActeurs(Arrays.asList(acteur(2L, "Ford", "Harrison"), acteur(null, "Hamill", null)));
+
+        assertEquals(defaultMapper.writeValueAsString(film), mapper.writeValueAsString(film));
+    }
+
+    @Test
+    public void serialize_nullActeurs() throws Exception {
+        Film film = new Film();
+
+        assertEquals(defaultMapper.writeValueAsString(film), mapper.writeValueAsString(film));
+    }
+}
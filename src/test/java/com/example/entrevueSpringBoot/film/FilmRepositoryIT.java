@@ -0,0 +1,55 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.IntegrationTest;
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.acteur;
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.film;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Acteurs without id resolved by nom & prenom, see FilmRepository#findActeursByNomPrenom.
+ */
+@IntegrationTest // @SpringBootTest with common configuration
+@Transactional // rolled back after each test, acteurs ids are not cached
+public class FilmRepositoryIT {
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    /**
+     * @param count 33: chunked, a lookup of the largest arity (32) then of 1 ; 5: padded to the arity 8
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {33, 5})
+    public void save_existingActeurs_resolvedToTheirIds(int count) {
+        List<Acteur> acteurs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) acteurs.add(acteur("Nom" + i, "Prenom" + i));
+        Film first = film("Film 1");
+        first.setActeurs(acteurs);
+        List<Acteur> existing = filmRepository.save(first).getActeurs();
+
+        // same acteurs without id, in reverse order: ids are matched by nom & prenom, not by position
+        List<Acteur> posted = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) posted.add(acteur("Nom" + i, "Prenom" + i));
+        Film second = film("Film 2");
+        second.setActeurs(posted);
+        List<Acteur> resolved = filmRepository.save(second).getActeurs();
+
+        assertEquals(count, resolved.size());
+        for (int i = 0; i < count; i++) {
+            Acteur acteur = resolved.get(count - 1 - i);
+            assertEquals("Nom" + i, acteur.getNom());
+            assertNotNull(existing.get(i).getId());
+            assertEquals(existing.get(i).getId(), acteur.getId(), "Nom" + i + " Prenom" + i);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.entrevueSpringBoot.film;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.acteur;
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.film;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilmResponseCacheTest {
+
+    private final FilmResponseCache cache = new FilmResponseCache(
+            100, // maximum size
+            Duration.ofMinutes(1), // expire after write
+            DataSize.ofBytes(1000), // gzip min size
+            new ObjectMapper(),
+            new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(),
+            new SimpleMeterRegistry()
+    );
+
+    private static Film filmWithActeurs(long id, int acteurs) {
+        Film film = film(id, "Star Wars: The Empire Strikes Back", null);
+        film.setVersion(0L);
+
+        List<Acteur> list = new ArrayList<>(acteurs);
+        for (int i = 0; i < acteurs; i++) {
+            list.add(acteur(100L + i, "Ford" + i, "Harrison"));
+        }
+        film.setActeurs(list);
+        return film;
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    @Test
+    public void get_belowGzipMinSize_notCompressed() {
+        FilmResponseCache.Entry entry = cache.get(1, id -> filmWithActeurs(id, 1));
+
+        assertTrue(entry.getBytes().length < 1000);
+        assertNull(entry.getGzip());
+    }
+
+    @Test
+    public void get_aboveGzipMinSize_compressed() throws IOException {
+        FilmResponseCache.Entry entry = cache.get(1, id -> filmWithActeurs(id, 100));
+
+        assertTrue(entry.getGzip().length < entry.getBytes().length);
+        assertArrayEquals(entry.getBytes(), gunzip(entry.getGzip()));
+    }
+
+    @Test
+    public void get_perFormat() throws IOException {
+        FilmResponseCache.Entry json = cache.get(1, FilmFormat.JSON, id -> filmWithActeurs(id, 100));
+        FilmResponseCache.Entry cbor = cache.get(1, FilmFormat.CBOR, id -> filmWithActeurs(id, 100));
+
+        assertTrue(cbor.getBytes().length < json.getBytes().length);
+        assertArrayEquals(cbor.getBytes(), gunzip(cbor.getGzip()));
+    }
+}
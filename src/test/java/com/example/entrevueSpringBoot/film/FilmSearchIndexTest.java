@@ -0,0 +1,89 @@
+package com.example.entrevueSpringBoot.film;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.entrevueSpringBoot.testhelper.Fixtures.film;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FilmSearchIndexTest {
+
+    private final FilmSearchIndex index = new FilmSearchIndex(null); // not built from database
+
+    private List<Long> search(String query, int offset, int limit) {
+        return index.search(query, offset, limit).stream().map(FilmSearchIndex.Hit::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void tokenize() {
+        assertEquals(Arrays.asList("l", "empire", "contre", "attaque"), FilmSearchIndex.tokenize("L'Empire contre-attaque"));
+    }
+
+    @Test
+    public void search() {
+        index.addAll(Arrays.asList(
+                film(1, "Star Wars: The Empire Strikes Back", "Darth Vader is adamant about turning Luke Skywalker to the dark side."),
+                film(2, "Star Wars: Return of the Jedi", "Luke Skywalker battles Jabba the Hutt and Darth Vader."),
+                film(3, "The Dark Knight", "Batman fights the Joker in Gotham."),
+                film(4, "Indiana Jones", null)
+        ));
+
+        assertEquals(Arrays.asList(3L, 1L), search("dark", 0, 10), "titre ranks higher than description");
+        assertEquals(Arrays.asList(1L, 2L), search("EMPIRE jedi", 0, 10), "any word, ties by id");
+        assertEquals(Arrays.asList(2L), search("star wars", 1, 10), "second page");
+        assertTrue(search("titanic", 0, 10).isEmpty());
+        assertTrue(search("  ", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void addAll_replaces() {
+        index.addAll(Collections.singletonList(film(1, "Star Wars", null)));
+        index.addAll(Collections.singletonList(film(1, "Blade Runner", null)));
+
+        assertTrue(search("star", 0, 10).isEmpty());
+        assertEquals(Collections.singletonList(1L), search("runner", 0, 10));
+    }
+
+    @Test
+    public void rebuild_swapped() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        FilmSearchIndex rebuilt = new FilmSearchIndex(jdbcTemplate);
+        rebuilt.addAll(Collections.singletonList(film(1, "Star Wars", null))); // no longer in the table
+
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(2L);
+        when(row.getString("titre")).thenReturn("Blade Runner");
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(row);
+
+            // meanwhile: the previous index is searched, films saved are indexed in both
+            assertEquals(Collections.singletonList(1L), ids(rebuilt.search("star", 0, 10)));
+            assertTrue(rebuilt.search("blade", 0, 10).isEmpty(), "not partially rebuilt");
+            rebuilt.addAll(Collections.singletonList(film(3, "Runner Runner", null)));
+            assertEquals(Collections.singletonList(3L), ids(rebuilt.search("runner", 0, 10)));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        rebuilt.rebuild();
+
+        assertTrue(rebuilt.search("star", 0, 10).isEmpty());
+        assertEquals(Arrays.asList(3L, 2L), ids(rebuilt.search("runner", 0, 10)));
+    }
+
+    private static List<Long> ids(List<FilmSearchIndex.Hit> hits) {
+        return hits.stream().map(FilmSearchIndex.Hit::getId).collect(Collectors.toList());
+    }
+}
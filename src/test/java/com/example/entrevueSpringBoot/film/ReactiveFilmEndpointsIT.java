@@ -0,0 +1,104 @@
+package com.example.entrevueSpringBoot.film;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Black-box testing of {@link ReactiveFilmController} endpoints.
+ *
+ * Not an @IntegrationTest: another application context (reactive web application), on its own database because
+ * R2DBC transactions are committed, there is no rollback of test transactions.
+ */
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive-it",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-it",
+})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveFilmEndpointsIT {
+
+    //language=json
+    private static final String BODY = "{" +
+            "\"titre\":\"%s\"," +
+            "\"description\":\"Luke Skywalker battles Jabba the Hutt and Darth Vader.\"," +
+            "\"acteurs\":[" +
+            "{\"nom\":\"Ford\",\"prenom\":\"Harrison\"}," +
+            "{\"nom\":\"Fisher\",\"prenom\":\"Carrie\"}," +
+            "{\"nom\":\"Ford\",\"prenom\":\"Harrison\"}" + // same acteur twice
+            "]" +
+            "}";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Film doPostFilm(String titre) {
+        return webTestClient.post().uri("/api/film")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format(BODY, titre))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Film.class).returnResult().getResponseBody();
+    }
+
+    @Test
+    public void postFilm_201() {
+        Film film = doPostFilm("Star Wars: Return of the Jedi");
+
+        assertNotNull(film.getId());
+        assertEquals(3, film.getActeurs().size());
+        assertNotNull(film.getActeurs().get(0).getId());
+        assertEquals(film.getActeurs().get(0).getId(), film.getActeurs().get(2).getId(), "deduplicated by nom & prenom");
+
+        // existing acteurs are not inserted again
+        Film other = doPostFilm("Star Wars: A New Hope");
+        assertEquals(film.getActeurs().get(0).getId(), other.getActeurs().get(0).getId());
+        assertEquals(film.getActeurs().get(1).getId(), other.getActeurs().get(1).getId());
+    }
+
+    @Test
+    public void postFilm_conflict_409() {
+        doPostFilm("Indiana Jones: Raiders of the Lost Ark");
+
+        webTestClient.post().uri("/api/film")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format(BODY, "Indiana Jones: Raiders of the Lost Ark")) // TODO: is film's titre unique ?
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    public void getFilm_200() {
+        Film posted = doPostFilm("Blade Runner");
+
+        String eTag = webTestClient.get().uri("/api/film/{id}", posted.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.titre").isEqualTo("Blade Runner")
+                .jsonPath("$.acteurs.length()").isEqualTo(3) // as posted, see Film#acteurs
+                .returnResult().getResponseHeaders().getETag();
+        assertEquals(String.format("\"%d-0\"", posted.getId()), eTag);
+
+        webTestClient.get().uri("/api/film/{id}", posted.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    public void getFilm_404() {
+        webTestClient.get().uri("/api/film/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
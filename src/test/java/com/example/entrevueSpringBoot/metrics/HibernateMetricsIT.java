@@ -0,0 +1,36 @@
+package com.example.entrevueSpringBoot.metrics;
+
+import com.example.entrevueSpringBoot.IntegrationTest;
+import com.example.entrevueSpringBoot.film.FilmRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hibernate statistics (hibernate.generate_statistics) are exposed as "hibernate.*" metrics.
+ */
+@IntegrationTest // @SpringBootTest with common configuration
+public class HibernateMetricsIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Test
+    public void hibernateMeters() {
+        filmRepository.findAfter(0, 10); // at least one session
+
+        FunctionCounter sessions = meterRegistry.find("hibernate.sessions.open").functionCounter();
+        assertNotNull(sessions, "no hibernate.* meter: is hibernate-micrometer on the classpath ?");
+        assertTrue(sessions.count() > 0);
+
+        assertNotNull(meterRegistry.find("hibernate.entities.loads").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.flushes").functionCounter());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.entrevueSpringBoot.testhelper;
+
+import com.example.entrevueSpringBoot.acteur.Acteur;
+import com.example.entrevueSpringBoot.film.Film;
+
+/**
+ * Test helper building detached entities. Usage:
+ * <p>
+ * film("Star Wars").setActeurs(Arrays.asList(acteur("Ford", "Harrison"), acteur(2L, "Hamill", "Mark")));
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * New acteur, id assigned on persist.
+     */
+    public static Acteur acteur(String nom, String prenom) {
+        return acteur(null, nom, prenom);
+    }
+
+    public static Acteur acteur(Long id, String nom, String prenom) {
+        Acteur acteur = new Acteur();
+        acteur.setId(id);
+        acteur.setNom(nom);
+        acteur.setPrenom(prenom);
+        return acteur;
+    }
+
+    /**
+     * New film, id assigned on persist.
+     */
+    public static Film film(String titre) {
+        Film film = new Film();
+        film.setTitre(titre);
+        return film;
+    }
+
+    public static Film film(long id, String titre, String description) {
+        Film film = film(titre);
+        film.setId(id);
+        film.setDescription(description);
+        return film;
+    }
+}